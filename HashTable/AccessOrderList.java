@@ -0,0 +1,105 @@
+/**
+ * An intrusive doubly linked list of CacheEntry objects kept in access order. The
+ * head is the least recently used entry and the tail is the most recently used one.
+ * The links live inside the entries themselves, so adding, moving and removing an
+ * entry are all O(1) and allocate nothing.
+ *
+ * @author Patrick Harvey
+ */
+class AccessOrderList<KeyType, ValueType> {
+
+    private CacheEntry<KeyType, ValueType> head;
+    private CacheEntry<KeyType, ValueType> tail;
+    private long weight;
+
+    /**
+     * Returns the least recently used entry of this list.
+     * @return the head of this list, or null if the list is empty
+     */
+    CacheEntry<KeyType, ValueType> peekFirst() {
+        return head;
+    }
+
+    /**
+     * Returns the total weight of the entries within this list.
+     * @return the weight of this list
+     */
+    long weight() {
+        return weight;
+    }
+
+    boolean isEmpty() {
+        return head == null;
+    }
+
+    /**
+     * Adds an entry that is not in any list as the most recently used entry.
+     * @param entry the entry to be added
+     */
+    void addLast(CacheEntry<KeyType, ValueType> entry) {
+        entry.previous = tail;
+        entry.next = null;
+        entry.list = this;
+
+        if (tail == null) {
+            head = entry;
+        } else {
+            tail.next = entry;
+        }
+        tail = entry;
+        weight += entry.getWeight();
+    }
+
+    /**
+     * Unlinks an entry of this list.
+     * @param entry the entry to be removed
+     */
+    void remove(CacheEntry<KeyType, ValueType> entry) {
+        if (entry.previous == null) {
+            head = entry.next;
+        } else {
+            entry.previous.next = entry.next;
+        }
+
+        if (entry.next == null) {
+            tail = entry.previous;
+        } else {
+            entry.next.previous = entry.previous;
+        }
+
+        entry.previous = null;
+        entry.next = null;
+        entry.list = null;
+        weight -= entry.getWeight();
+    }
+
+    /**
+     * Accounts for an entry of this list changing its weight.
+     * @param oldWeight the weight the entry had
+     * @param newWeight the weight the entry has now
+     */
+    void reweigh(int oldWeight, int newWeight) {
+        weight += newWeight - oldWeight;
+    }
+
+    /**
+     * Moves an entry of this list to the most recently used position.
+     * @param entry the entry that was accessed
+     */
+    void moveToLast(CacheEntry<KeyType, ValueType> entry) {
+        if (entry != tail) {
+            remove(entry);
+            addLast(entry);
+        }
+    }
+
+    /**
+     * Removes every entry from this list.
+     */
+    void clear() {
+        while (head != null) {
+            remove(head);
+        }
+    }
+
+}
@@ -0,0 +1,375 @@
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A cache with a bounded total weight that maps generic KeyType keys to ValueType values.
+ * Entries are found through a HashTableMap from each key to its CacheEntry. Each entry
+ * also carries the intrusive links of the EvictionPolicy, so get() and put() run in O(1).
+ *
+ * Each entry has a weight, 1 by default, so the maximum is the maximum number of entries.
+ * A Weigher may instead estimate a weight for each entry, such as its size in bytes. When
+ * a put() takes the total weight over the maximum, the policy picks entries to evict until
+ * the cache fits again. LruPolicy and WTinyLfuPolicy are provided.
+ *
+ * As with the other MapADT implementations, put() does not replace the value of a key
+ * that is already cached. compute() and merge() update a cached entry in place, keeping its
+ * place in the eviction order; the entry is re-weighed with its new value.
+ *
+ * get(), getOrDefault() and computeIfAbsent() count hits and misses.
+ *
+ * @author Patrick Harvey
+ */
+public class BoundedCache<KeyType extends Comparable<KeyType>, ValueType> implements MapADT<KeyType, ValueType> {
+
+    /**
+     * Estimates the weight of an entry of the cache.
+     */
+    @FunctionalInterface
+    public interface Weigher<KeyType, ValueType> {
+        public int weigh(KeyType key, ValueType value);
+    }
+
+    private final HashTableMap<KeyType, CacheEntry<KeyType, ValueType>> index;
+    private final EvictionPolicy<KeyType, ValueType> policy;
+    private final Weigher<? super KeyType, ? super ValueType> weigher;
+    private final long maximumWeight;
+    private long weight;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a cache that holds at most the given number of entries.
+     *
+     * @param maximumSize - the maximum number of entries
+     * @param policy - the policy choosing which entries to evict
+     */
+    public BoundedCache(int maximumSize, EvictionPolicy<KeyType, ValueType> policy) {
+        this(maximumSize, maximumSize, (key, value) -> 1, policy);
+    }
+
+    /**
+     * Creates a cache whose entries, as weighed by the given weigher, have a total
+     * weight of at most maximumWeight. The index and the policy are sized for
+     * expectedSize entries, e.g. maximumWeight divided by the average entry weight,
+     * since the maximum weight may be far larger than the number of entries.
+     *
+     * @param maximumWeight - the maximum total weight of the entries
+     * @param expectedSize - the number of entries the cache is expected to hold when full
+     * @param weigher - estimates the weight of each entry
+     * @param policy - the policy choosing which entries to evict
+     */
+    public BoundedCache(long maximumWeight, int expectedSize, Weigher<? super KeyType, ? super ValueType> weigher,
+            EvictionPolicy<KeyType, ValueType> policy) {
+
+        if (maximumWeight <= 0) {
+            throw new NumberFormatException("Cannot have a maximum weight <= 0.");
+        }
+        if (expectedSize <= 0) {
+            throw new NumberFormatException("Cannot have an expected size <= 0.");
+        }
+
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.policy = policy;
+        this.index = new HashTableMap<>(Math.min(expectedSize, 1 << 16));
+        policy.setMaximumWeight(maximumWeight, expectedSize);
+    }
+
+    /**
+     * Returns the number of entries within this cache.
+     * @return the size of this cache
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the total weight of the entries within this cache.
+     * @return the weight of this cache
+     */
+    public long weight() {
+        return weight;
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Returns the number of lookups that found their key.
+     * @return the hit count of this cache
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups that did not find their key.
+     * @return the miss count of this cache
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of entries evicted to keep the cache within its maximum weight.
+     * @return the eviction count of this cache
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Looks up the entry for the given key, counting a hit or a miss.
+     *
+     * @param key the key being searched for
+     * @return the entry for key, or null if the key is not cached
+     */
+    private CacheEntry<KeyType, ValueType> lookup(KeyType key) {
+        CacheEntry<KeyType, ValueType> entry = index.getOrDefault(key, null);
+
+        if (entry == null) {
+            missCount++;
+            policy.recordMiss(key);
+        } else {
+            hitCount++;
+            policy.recordAccess(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Caches the value for the given key if the key is not already cached, evicting
+     * entries chosen by the policy while the cache is over its maximum weight.
+     *
+     * @param key - the key for storing the item in the cache
+     * @param value - the value to be cached
+     * @return true if the value was cached, false if the key was already cached
+     */
+    public boolean put(KeyType key, ValueType value) {
+        CacheEntry<KeyType, ValueType> entry = new CacheEntry<>(key, value, weigher.weigh(key, value));
+
+        if (index.putIfAbsent(key, entry) != null) {
+            return false;
+        }
+
+        weight += entry.getWeight();
+        policy.recordInsert(entry);
+        evictWhileOverweight();
+        return true;
+    }
+
+    /**
+     * Caches the value for the given key if the key is not already cached. A cached
+     * value is returned instead and counts as an access to its entry.
+     *
+     * @param key - the key for storing the item in the cache
+     * @param value - the value to be cached
+     * @return the value already cached for key, or null if the value was cached
+     */
+    @Override
+    public ValueType putIfAbsent(KeyType key, ValueType value) {
+        CacheEntry<KeyType, ValueType> entry = new CacheEntry<>(key, value, weigher.weigh(key, value));
+        CacheEntry<KeyType, ValueType> existing = index.putIfAbsent(key, entry);
+
+        if (existing != null) {
+            policy.recordAccess(existing);
+            return existing.getValue();
+        }
+
+        weight += entry.getWeight();
+        policy.recordInsert(entry);
+        evictWhileOverweight();
+        return null;
+    }
+
+    /**
+     * Returns the cached value for the given key, first caching the value computed by
+     * mappingFunction if the key is not cached. A null result is not cached.
+     *
+     * @param key - the key being searched for within the cache
+     * @param mappingFunction - computes the value for a missing key
+     * @return the cached or computed value for key, or null if none was computed
+     */
+    @Override
+    public ValueType computeIfAbsent(KeyType key,
+            Function<? super KeyType, ? extends ValueType> mappingFunction) {
+        CacheEntry<KeyType, ValueType> entry = index.compute(key, (k, current) -> {
+            if (current != null) {
+                hitCount++;
+                policy.recordAccess(current);
+                return current;
+            }
+            missCount++;
+            return update(k, null, mappingFunction.apply(k));
+        });
+
+        evictWhileOverweight();
+        return (entry != null) ? entry.getValue() : null;
+    }
+
+    /**
+     * Replaces the value for the given key with the result of remappingFunction, which
+     * is passed the current value, or null if the key is not cached. A null result
+     * removes the key from the cache.
+     *
+     * @param key - the key whose value is being computed
+     * @param remappingFunction - computes the new value from the key and the current value
+     * @return the new value for key, or null if the key is no longer cached
+     */
+    @Override
+    public ValueType compute(KeyType key,
+            BiFunction<? super KeyType, ? super ValueType, ? extends ValueType> remappingFunction) {
+        CacheEntry<KeyType, ValueType> entry = index.compute(key, (k, current) ->
+            update(k, current, remappingFunction.apply(k, (current != null) ? current.getValue() : null)));
+
+        evictWhileOverweight();
+        return (entry != null) ? entry.getValue() : null;
+    }
+
+    /**
+     * Caches the given value for the key if the key is not cached. Otherwise the value
+     * is replaced by the result of remappingFunction applied to the cached value and the
+     * given value. A null result removes the key from the cache.
+     *
+     * @param key - the key whose value is being merged
+     * @param value - the value cached for a missing key, and merged into a cached one
+     * @param remappingFunction - combines the cached value with the given value
+     * @return the new value for key, or null if the key is no longer cached
+     */
+    @Override
+    public ValueType merge(KeyType key, ValueType value,
+            BiFunction<? super ValueType, ? super ValueType, ? extends ValueType> remappingFunction) {
+        CacheEntry<KeyType, ValueType> entry = index.compute(key, (k, current) ->
+            update(k, current, (current == null) ? value : remappingFunction.apply(current.getValue(), value)));
+
+        evictWhileOverweight();
+        return (entry != null) ? entry.getValue() : null;
+    }
+
+    /**
+     * Applies a new value to the entry of a key from within the index's compute(), so
+     * that the key is found only once. A new key gets a new entry, a cached entry is
+     * updated in place and recorded as an access, and a null value removes the entry.
+     * Evicting is left to the caller, since it changes the index.
+     *
+     * @param key the key being updated
+     * @param current the entry cached for key, or null if there is none
+     * @param value the new value for key, or null to remove it
+     * @return the entry to be stored for key, or null to store none
+     */
+    private CacheEntry<KeyType, ValueType> update(KeyType key, CacheEntry<KeyType, ValueType> current,
+            ValueType value) {
+
+        if (current == null) {
+            if (value == null) {
+                return null;
+            }
+            CacheEntry<KeyType, ValueType> entry = new CacheEntry<>(key, value, weigher.weigh(key, value));
+            weight += entry.getWeight();
+            policy.recordInsert(entry);
+            return entry;
+        }
+
+        if (value == null) {
+            policy.recordRemove(current);
+            weight -= current.getWeight();
+            return null;
+        }
+
+        int newWeight = weigher.weigh(key, value);
+        weight += newWeight - current.getWeight();
+        current.setWeight(newWeight);
+        current.setValue(value);
+        policy.recordAccess(current);
+        return current;
+    }
+
+    /**
+     * Evicts entries chosen by the policy until the cache is within its maximum weight.
+     */
+    private void evictWhileOverweight() {
+        while (weight > maximumWeight) {
+            CacheEntry<KeyType, ValueType> victim = policy.selectVictim();
+            if (victim == null) {
+                return;
+            }
+
+            index.remove(victim.getKey());
+            weight -= victim.getWeight();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Returns the cached value for the given key. If the key is not cached,
+     * then it throws an exception.
+     *
+     * @param key the key being searched for within the cache
+     * @return the value cached for key, if it exists
+     * @throws NoSuchElementException if the key is not cached
+     */
+    public ValueType get(KeyType key) throws NoSuchElementException {
+        CacheEntry<KeyType, ValueType> entry = lookup(key);
+
+        if (entry == null) {
+            throw new NoSuchElementException("Key did not exist within cache.");
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * Returns the cached value for the given key, or defaultValue if the key is not
+     * cached. Unlike get(), a miss does not throw.
+     *
+     * @param key the key being searched for within the cache
+     * @param defaultValue the value returned when the key is not cached
+     * @return the value cached for key, or defaultValue if there is none
+     */
+    @Override
+    public ValueType getOrDefault(KeyType key, ValueType defaultValue) {
+        CacheEntry<KeyType, ValueType> entry = lookup(key);
+        return (entry != null) ? entry.getValue() : defaultValue;
+    }
+
+    /**
+     * Checks whether the given key is cached, without counting a hit or a miss
+     * and without changing the key's place in the eviction order.
+     *
+     * @return true if the cache contains the given key, false otherwise
+     */
+    public boolean containsKey(KeyType key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Removes the given key from the cache, and returns the value that was cached
+     * for it. If the given key is not cached, it returns null.
+     *
+     * @return ValueType if the key was cached, otherwise null
+     */
+    public ValueType remove(KeyType key) {
+        CacheEntry<KeyType, ValueType> entry = index.remove(key);
+
+        if (entry == null) {
+            return null;
+        }
+
+        policy.recordRemove(entry);
+        weight -= entry.getWeight();
+        return entry.getValue();
+    }
+
+    /**
+     * Removes every entry from the cache. The hit, miss and eviction counts are kept.
+     */
+    public void clear() {
+        index.clear();
+        policy.clear();
+        weight = 0;
+    }
+
+}
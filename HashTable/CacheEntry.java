@@ -0,0 +1,75 @@
+/**
+ * This class type CacheEntry stores a key-value pairing held by a BoundedCache,
+ * together with its weight and the links that place it within the eviction
+ * policy's access order lists.
+ * @author Patrick Harvey
+ */
+public class CacheEntry<KeyType, ValueType> {
+
+    final private KeyType key;
+    private ValueType value;
+    private int weight;
+
+    // intrusive links used by AccessOrderList
+    CacheEntry<KeyType, ValueType> previous;
+    CacheEntry<KeyType, ValueType> next;
+    AccessOrderList<KeyType, ValueType> list; // the list holding this entry, null if none
+
+    /**
+     * Constructor for the CacheEntry that stores a key, its value, and the
+     * weight the entry counts against the cache's maximum.
+     * 
+     * @param key - key for accessing this entry within the cache
+     * @param value - value associated with this key
+     * @param weight - the weight of this entry, at least 0
+     */
+    CacheEntry(KeyType key, ValueType value, int weight) {
+        this.key = key;
+        this.value = value;
+        this.weight = weight;
+    }
+
+    /**
+     * Returns the key for this entry.
+     * @return - the key associated with this entry.
+     */
+    public KeyType getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the value associated with this entry.
+     * @return - the value associated with this entry.
+     */
+    public ValueType getValue() {
+        return value;
+    }
+
+    /**
+     * Replaces the value associated with this entry.
+     * @param value - the new value for this entry's key
+     */
+    void setValue(ValueType value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the weight this entry counts against the cache's maximum.
+     * @return - the weight of this entry.
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Changes the weight of this entry, and of the access order list holding it.
+     * @param weight - the new weight of this entry, at least 0
+     */
+    void setWeight(int weight) {
+        if (list != null) {
+            list.reweigh(this.weight, weight);
+        }
+        this.weight = weight;
+    }
+
+}
@@ -0,0 +1,596 @@
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A thread safe implementation of a Hash Table with generic types KeyType mapped to ValueType.
+ * Like HashTableMap, this table handles collisions by chaining, but it may be shared by
+ * many threads without any outside locking.
+ *
+ * Readers never lock. Each bucket head is read through an AtomicReferenceArray, and chain
+ * nodes are immutable. A reader therefore always sees a complete chain.
+ *
+ * Writers lock one of STRIPES locks, chosen by the bucket index. A new entry is added at the
+ * head of its chain. Removing an entry copies the part of the chain in front of it.
+ *
+ * When the table becomes overloaded, a table with double the capacity is attached to it.
+ * Every thread that writes to the map while the resize is running helps move buckets into
+ * the new table, claiming MIGRATION_STRIDE buckets at a time. A moved bucket is replaced by
+ * a forwarding node, which sends readers and writers on to the new table.
+ *
+ * put() never replaces an existing value, so it already acts as an atomic put-if-absent.
+ * computeIfAbsent(), compute() and merge() look the key up and store the result under the
+ * stripe lock of its bucket, in one pass over the chain, so each of them is atomic. Their
+ * functions run while that lock is held, so they should be short and must not use the map.
+ *
+ * @author Patrick Harvey
+ */
+public class ConcurrentHashTableMap<KeyType extends Comparable<KeyType>, ValueType> implements MapADT<KeyType, ValueType> {
+
+    /**
+     * A single immutable entry within a bucket chain.
+     */
+    private static class Node<KeyType, ValueType> {
+        final int hash;
+        final KeyType key;
+        final ValueType value;
+        final Node<KeyType, ValueType> next;
+
+        Node(int hash, KeyType key, ValueType value, Node<KeyType, ValueType> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Placed at the head of a bucket once that bucket has been moved into the next table.
+     */
+    private static class ForwardingNode<KeyType, ValueType> extends Node<KeyType, ValueType> {
+        final Table<KeyType, ValueType> nextTable;
+
+        ForwardingNode(Table<KeyType, ValueType> nextTable) {
+            super(0, null, null, null);
+            this.nextTable = nextTable;
+        }
+    }
+
+    /**
+     * A bucket array together with the state of a resize out of it.
+     */
+    private static class Table<KeyType, ValueType> {
+        final AtomicReferenceArray<Node<KeyType, ValueType>> buckets;
+        final int length;
+        final long threshold;
+        final AtomicReference<Table<KeyType, ValueType>> next = new AtomicReference<>();
+        final AtomicBoolean resizeClaimed = new AtomicBoolean(); // set by the thread creating next
+        final AtomicInteger transferIndex = new AtomicInteger(); // next bucket to be claimed
+        final AtomicInteger transferred = new AtomicInteger(); // buckets already moved
+
+        Table(int length) {
+            this.buckets = new AtomicReferenceArray<>(length);
+            this.length = length;
+            this.threshold = (long) (length * LOAD_FACTOR);
+        }
+    }
+
+    private static final double LOAD_FACTOR = 0.8;
+    private static final int STRIPES = 64; // must be a power of two
+    private static final int MIGRATION_STRIDE = 16; // buckets claimed at once by a helper
+
+    private volatile Table<KeyType, ValueType> table;
+    private final ReentrantLock[] locks;
+    private final LongAdder size;
+
+    /**
+     * This constructor creates a new ConcurrentHashTableMap object with at least the
+     * specified capacity. The capacity is rounded up to a power of two, and is never
+     * smaller than the number of lock stripes.
+     *
+     * @param capacity - the minimum size of the map to be made
+     */
+    public ConcurrentHashTableMap(int capacity) {
+
+        if (capacity <= 0) {
+            throw new NumberFormatException("Cannot have a capacity <= 0.");
+        }
+
+        table = new Table<>(tableSizeFor(Math.max(capacity, STRIPES)));
+        size = new LongAdder();
+        locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Default constructor that creates a ConcurrentHashTableMap with capacity of 64.
+     */
+    public ConcurrentHashTableMap() {
+        this(STRIPES);
+    }
+
+    /**
+     * Returns the size of this ConcurrentHashTableMap. While other threads are
+     * writing, the result is only an estimate.
+     * @return the size of this map
+     */
+    public int size() {
+        return (int) Math.min(size.sum(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of buckets in the current table.
+     * @return the current capacity of this hash table
+     */
+    public int getCapacity() {
+        return table.length;
+    }
+
+    /**
+     * Rounds the given capacity up to the next power of two.
+     * @param capacity - the requested capacity
+     * @return the smallest power of two >= capacity
+     */
+    private static int tableSizeFor(int capacity) {
+        int n = -1 >>> Integer.numberOfLeadingZeros(capacity - 1);
+        return (n < 0) ? 1 : (n >= (1 << 30)) ? (1 << 30) : n + 1;
+    }
+
+    /**
+     * Spreads the high bits of the key's hashCode() into the low bits, which are
+     * the ones used to pick a bucket.
+     *
+     * @param key the key to be hashed
+     * @return the spread hash of the key
+     */
+    private static int spread(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the lock guarding the given bucket. Since every table length is a multiple
+     * of STRIPES, a bucket and the two buckets it splits into share the same lock.
+     *
+     * @param index the index of the bucket
+     * @return the lock for that bucket
+     */
+    private ReentrantLock lockFor(int index) {
+        return locks[index & (STRIPES - 1)];
+    }
+
+    /**
+     * This method searches for the value for the given key without locking. If the
+     * key does not exist, then it throws an exception.
+     *
+     * @param key the key being searched for within the hashtable
+     * @return the value associated with key, if it exists
+     * @throws NoSuchElementException if the value does not exist within the hash table
+     */
+    public ValueType get(KeyType key) throws NoSuchElementException {
+        Node<KeyType, ValueType> node = find(key);
+
+        if (node == null) {
+            throw new NoSuchElementException("Key did not exist within hash table.");
+        }
+        return node.value;
+    }
+
+    /**
+     * Returns the value for the given key, or defaultValue if the key does not exist
+     * within the hash table. The chain is read once without locking, so a remove()
+     * running at the same time cannot make a miss throw.
+     *
+     * @param key the key being searched for within the hashtable
+     * @param defaultValue the value returned when the key is not in the table
+     * @return the value for key, or defaultValue if there is none
+     */
+    @Override
+    public ValueType getOrDefault(KeyType key, ValueType defaultValue) {
+        Node<KeyType, ValueType> node = find(key);
+        return (node != null) ? node.value : defaultValue;
+    }
+
+    /**
+    * Searches through the hash table for the given key without locking.
+    *
+    * @return true if the hash table contains the given key, false otherwise
+    */
+    public boolean containsKey(KeyType key) {
+        return find(key) != null;
+    }
+
+    /**
+     * Helper method that walks the chain for the given key, following forwarding
+     * nodes into newer tables.
+     *
+     * @param key the key being searched for
+     * @return the node holding the key, or null if it is not in the table
+     */
+    private Node<KeyType, ValueType> find(KeyType key) {
+        int hash = spread(key);
+        Table<KeyType, ValueType> t = table;
+
+        while (true) {
+            Node<KeyType, ValueType> node = t.buckets.get(hash & (t.length - 1));
+
+            if (node instanceof ForwardingNode) {
+                t = ((ForwardingNode<KeyType, ValueType>) node).nextTable;
+                continue;
+            }
+
+            for (; node != null; node = node.next) {
+                if (node.hash == hash && key.equals(node.key)) {
+                    return node;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Stores the key-value pair in the hash table if the key is not already present.
+     * Only the lock stripe of the key's bucket is held while the entry is added.
+     *
+     * @param key - the key for storing the item in the hash table
+     * @param value - the value to be stored in the hash table
+     * @return true if the value was put in the table, false if the key already existed
+     */
+    public boolean put(KeyType key, ValueType value) {
+        int hash = spread(key);
+        Table<KeyType, ValueType> t = table;
+
+        while (true) {
+            int index = hash & (t.length - 1);
+            ReentrantLock lock = lockFor(index);
+            Table<KeyType, ValueType> forward = null;
+
+            lock.lock();
+            try {
+                Node<KeyType, ValueType> head = t.buckets.get(index);
+
+                if (head instanceof ForwardingNode) {
+                    forward = ((ForwardingNode<KeyType, ValueType>) head).nextTable;
+                } else {
+                    for (Node<KeyType, ValueType> node = head; node != null; node = node.next) {
+                        if (node.hash == hash && key.equals(node.key)) {
+                            return false;
+                        }
+                    }
+                    t.buckets.set(index, new Node<>(hash, key, value, head));
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            //the bucket has moved, help finish the resize and retry in the new table
+            if (forward != null) {
+                transfer(t);
+                t = forward;
+                continue;
+            }
+
+            size.increment();
+            checkForResize();
+            return true;
+        }
+    }
+
+    /**
+     * Stores the value for the given key if the key does not already exist within
+     * the hash table. put() is already an atomic put-if-absent, so this only has to
+     * retry when the key it found present is removed before its value is read.
+     *
+     * @param key - the key for storing the item in the hash table
+     * @param value - the value to be stored in the hash table
+     * @return the value already stored for key, or null if the value was stored
+     */
+    @Override
+    public ValueType putIfAbsent(KeyType key, ValueType value) {
+        while (true) {
+            Node<KeyType, ValueType> node = find(key);
+            if (node != null) {
+                return node.value;
+            }
+            if (put(key, value)) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Returns the value for the given key, first storing the value computed by
+     * mappingFunction if the key does not exist within the hash table. A present key
+     * is found without locking; a missing key is computed and stored atomically under
+     * the stripe lock. A null result is not stored.
+     *
+     * @param key - the key being searched for within the hashtable
+     * @param mappingFunction - computes the value for a missing key
+     * @return the current or computed value for key, or null if none was computed
+     */
+    @Override
+    public ValueType computeIfAbsent(KeyType key,
+            Function<? super KeyType, ? extends ValueType> mappingFunction) {
+        Node<KeyType, ValueType> node = find(key);
+        if (node != null) {
+            return node.value;
+        }
+        return remap(key, current -> (current != null) ? current : mappingFunction.apply(key));
+    }
+
+    /**
+     * Atomically replaces the value for the given key with the result of
+     * remappingFunction, which is passed the current value, or null if the key does not
+     * exist within the table. A null result removes the key from the hash table.
+     *
+     * @param key - the key whose value is being computed
+     * @param remappingFunction - computes the new value from the key and the current value
+     * @return the new value for key, or null if the key is no longer in the table
+     */
+    @Override
+    public ValueType compute(KeyType key,
+            BiFunction<? super KeyType, ? super ValueType, ? extends ValueType> remappingFunction) {
+        return remap(key, current -> remappingFunction.apply(key, current));
+    }
+
+    /**
+     * Atomically stores the given value for the key if the key does not exist within
+     * the table. Otherwise the value is replaced by the result of remappingFunction
+     * applied to the current value and the given value. A null result removes the key.
+     *
+     * @param key - the key whose value is being merged
+     * @param value - the value stored for a missing key, and merged into a present one
+     * @param remappingFunction - combines the current value with the given value
+     * @return the new value for key, or null if the key is no longer in the table
+     */
+    @Override
+    public ValueType merge(KeyType key, ValueType value,
+            BiFunction<? super ValueType, ? super ValueType, ? extends ValueType> remappingFunction) {
+        return remap(key, current -> (current == null) ? value : remappingFunction.apply(current, value));
+    }
+
+    /**
+     * Helper method behind computeIfAbsent(), compute() and merge(). Under the stripe
+     * lock of the key's bucket, it finds the key, passes its value (or null if it is
+     * missing) to the remapping, and stores the result: a new key is added, a changed
+     * value replaces the node, and a null result removes the key.
+     *
+     * @param key the key whose value is being remapped
+     * @param remapping computes the new value from the current one
+     * @return the new value for key, or null if the key is not in the table
+     */
+    private ValueType remap(KeyType key, Function<? super ValueType, ? extends ValueType> remapping) {
+        int hash = spread(key);
+        Table<KeyType, ValueType> t = table;
+
+        while (true) {
+            int index = hash & (t.length - 1);
+            ReentrantLock lock = lockFor(index);
+            Table<KeyType, ValueType> forward = null;
+            ValueType value = null;
+            int added = 0;
+
+            lock.lock();
+            try {
+                Node<KeyType, ValueType> head = t.buckets.get(index);
+
+                if (head instanceof ForwardingNode) {
+                    forward = ((ForwardingNode<KeyType, ValueType>) head).nextTable;
+                } else {
+                    Node<KeyType, ValueType> found = head;
+                    while (found != null && !(found.hash == hash && key.equals(found.key))) {
+                        found = found.next;
+                    }
+
+                    value = remapping.apply((found != null) ? found.value : null);
+
+                    if (found == null) {
+                        if (value != null) {
+                            t.buckets.set(index, new Node<>(hash, key, value, head));
+                            added = 1;
+                        }
+                    } else if (value == null) {
+                        t.buckets.set(index, relink(head, found, found.next));
+                        added = -1;
+                    } else if (value != found.value) {
+                        t.buckets.set(index, relink(head, found, new Node<>(hash, key, value, found.next)));
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (forward != null) {
+                transfer(t);
+                t = forward;
+                continue;
+            }
+
+            if (added != 0) {
+                size.add(added);
+                if (added > 0) {
+                    checkForResize();
+                }
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Returns a chain in which the given node is replaced by the given rest of the
+     * chain. The nodes in front of it are copied, since nodes are immutable.
+     *
+     * @param head the first node of the chain
+     * @param found the node being replaced
+     * @param rest the nodes that take the place of found and everything after it
+     * @return the first node of the new chain
+     */
+    private static <KeyType, ValueType> Node<KeyType, ValueType> relink(Node<KeyType, ValueType> head,
+            Node<KeyType, ValueType> found, Node<KeyType, ValueType> rest) {
+        for (Node<KeyType, ValueType> node = head; node != found; node = node.next) {
+            rest = new Node<>(node.hash, node.key, node.value, rest);
+        }
+        return rest;
+    }
+
+    /**
+     * Removes the value associated with the give key from the hash table, and
+     * returns a reference to that value. If the given key does not exist within
+     * the table, it returns null.
+     *
+     * @return ValueType if the key-value pair exists within, otherwise null
+     */
+    public ValueType remove(KeyType key) {
+        int hash = spread(key);
+        Table<KeyType, ValueType> t = table;
+
+        while (true) {
+            int index = hash & (t.length - 1);
+            ReentrantLock lock = lockFor(index);
+            Table<KeyType, ValueType> forward = null;
+            ValueType removee = null;
+
+            lock.lock();
+            try {
+                Node<KeyType, ValueType> head = t.buckets.get(index);
+
+                if (head instanceof ForwardingNode) {
+                    forward = ((ForwardingNode<KeyType, ValueType>) head).nextTable;
+                } else {
+                    Node<KeyType, ValueType> found = head;
+                    while (found != null && !(found.hash == hash && key.equals(found.key))) {
+                        found = found.next;
+                    }
+
+                    if (found == null) {
+                        return null;
+                    }
+
+                    t.buckets.set(index, relink(head, found, found.next));
+                    removee = found.value;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (forward != null) {
+                transfer(t);
+                t = forward;
+                continue;
+            }
+
+            size.decrement();
+            return removee;
+        }
+    }
+
+    /**
+     * Starts a resize of the current table if it is overloaded, or helps a running
+     * resize move its buckets. Only the thread that claims the resize allocates the
+     * next table; threads racing it return and help once the table is attached.
+     */
+    private void checkForResize() {
+        Table<KeyType, ValueType> t = table;
+
+        if (t.next.get() != null) {
+            transfer(t);
+        } else if (size.sum() >= t.threshold && t.length < (1 << 30)
+                && t.resizeClaimed.compareAndSet(false, true)) {
+            t.next.set(new Table<>(t.length * 2));
+            transfer(t);
+        }
+    }
+
+    /**
+     * Moves buckets out of the given table into its next table, claiming
+     * MIGRATION_STRIDE buckets at a time until none are left to claim. The thread
+     * that moves the final bucket installs the next table as the current table.
+     *
+     * @param t the table being resized
+     */
+    private void transfer(Table<KeyType, ValueType> t) {
+        Table<KeyType, ValueType> next = t.next.get();
+        if (next == null) {
+            return;
+        }
+
+        ForwardingNode<KeyType, ValueType> forward = new ForwardingNode<>(next);
+        int start;
+
+        while ((start = t.transferIndex.getAndAdd(MIGRATION_STRIDE)) < t.length) {
+            int end = Math.min(start + MIGRATION_STRIDE, t.length);
+
+            for (int index = start; index < end; index++) {
+                ReentrantLock lock = lockFor(index);
+                lock.lock();
+                try {
+                    //split the chain into the buckets index and index + t.length
+                    Node<KeyType, ValueType> low = null;
+                    Node<KeyType, ValueType> high = null;
+                    for (Node<KeyType, ValueType> node = t.buckets.get(index); node != null; node = node.next) {
+                        if ((node.hash & t.length) == 0) {
+                            low = new Node<>(node.hash, node.key, node.value, low);
+                        } else {
+                            high = new Node<>(node.hash, node.key, node.value, high);
+                        }
+                    }
+                    next.buckets.set(index, low);
+                    next.buckets.set(index + t.length, high);
+                    t.buckets.set(index, forward);
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            if (t.transferred.addAndGet(end - start) == t.length) {
+                // every bucket has moved, so the next table becomes the current table
+                table = next;
+            }
+        }
+    }
+
+    /**
+     * Clears the current hash table of all entries. Entries put by other threads
+     * while the table is being cleared may or may not remain.
+     */
+    public void clear() {
+        Table<KeyType, ValueType> t = table;
+
+        while (t != null) {
+            Table<KeyType, ValueType> forward = null;
+
+            for (int index = 0; index < t.length; index++) {
+                ReentrantLock lock = lockFor(index);
+                lock.lock();
+                try {
+                    Node<KeyType, ValueType> head = t.buckets.get(index);
+
+                    if (head instanceof ForwardingNode) {
+                        forward = ((ForwardingNode<KeyType, ValueType>) head).nextTable;
+                    } else {
+                        int removed = 0;
+                        for (Node<KeyType, ValueType> node = head; node != null; node = node.next) {
+                            removed++;
+                        }
+                        t.buckets.set(index, null);
+                        size.add(-removed);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            //moved buckets have to be cleared in the table they were moved to
+            t = forward;
+        }
+    }
+
+}
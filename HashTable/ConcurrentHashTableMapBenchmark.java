@@ -0,0 +1,166 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Measures the throughput of ConcurrentHashTableMap under a 90% get, 10% write load at
+ * 1 to 32 threads, against a HashTableMap guarded by a single lock and against
+ * java.util.concurrent.ConcurrentHashMap. Half of the key range is filled in advance;
+ * writes are put() and remove() of random keys, equally often, so the size stays steady.
+ *
+ * Throughput can only grow with the number of threads up to the number of available
+ * processors, which is printed first.
+ *
+ * Run with: java ConcurrentHashTableMapBenchmark [key range] [milliseconds per run]
+ *
+ * @author Patrick Harvey
+ */
+public class ConcurrentHashTableMapBenchmark {
+
+    private static final int[] THREADS = { 1, 2, 4, 8, 16, 32 };
+
+    /**
+     * The operations of a map under test.
+     */
+    private interface Target {
+        boolean contains(Integer key);
+        void put(Integer key);
+        void remove(Integer key);
+    }
+
+    private static Target concurrent(int range) {
+        ConcurrentHashTableMap<Integer, Integer> map = new ConcurrentHashTableMap<>(range);
+        return new Target() {
+            public boolean contains(Integer key) { return map.containsKey(key); }
+            public void put(Integer key) { map.put(key, key); }
+            public void remove(Integer key) { map.remove(key); }
+        };
+    }
+
+    private static Target locked(int range) {
+        HashTableMap<Integer, Integer> map = new HashTableMap<>(range);
+        ReentrantLock lock = new ReentrantLock();
+        return new Target() {
+            public boolean contains(Integer key) {
+                lock.lock();
+                try {
+                    return map.containsKey(key);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            public void put(Integer key) {
+                lock.lock();
+                try {
+                    map.put(key, key);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            public void remove(Integer key) {
+                lock.lock();
+                try {
+                    map.remove(key);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        };
+    }
+
+    private static Target jdk(int range) {
+        ConcurrentHashMap<Integer, Integer> map = new ConcurrentHashMap<>(range);
+        return new Target() {
+            public boolean contains(Integer key) { return map.containsKey(key); }
+            public void put(Integer key) { map.putIfAbsent(key, key); }
+            public void remove(Integer key) { map.remove(key); }
+        };
+    }
+
+    /**
+     * Runs the load on the given number of threads for the given time.
+     *
+     * @return the number of operations completed per second
+     */
+    private static double run(Target target, Integer[] keys, int threads, long millis) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        Thread[] workers = new Thread[threads];
+
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (System.nanoTime() < deadline[0]) {
+                    for (int i = 0; i < 1000; i++) {
+                        Integer key = keys[random.nextInt(keys.length)];
+                        int choice = random.nextInt(20);
+                        if (choice == 0) {
+                            target.put(key);
+                        } else if (choice == 1) {
+                            target.remove(key);
+                        } else {
+                            target.contains(key);
+                        }
+                    }
+                    count += 1000;
+                }
+                operations.add(count);
+            });
+            workers[t].start();
+        }
+
+        deadline[0] = System.nanoTime() + millis * 1_000_000;
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return operations.sum() * 1000.0 / millis;
+    }
+
+    private interface Factory {
+        Target create(int range);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int range = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        long millis = (args.length > 1) ? Long.parseLong(args[1]) : 1000;
+
+        Integer[] keys = new Integer[range];
+        for (int i = 0; i < range; i++) {
+            keys[i] = i;
+        }
+
+        String[] names = { "ConcurrentHashTableMap", "locked HashTableMap", "ConcurrentHashMap" };
+        Factory[] factories = {
+            ConcurrentHashTableMapBenchmark::concurrent,
+            ConcurrentHashTableMapBenchmark::locked,
+            ConcurrentHashTableMapBenchmark::jdk
+        };
+
+        System.out.println(Runtime.getRuntime().availableProcessors() + " available processors");
+        for (int f = 0; f < factories.length; f++) {
+            // warm up, so that the first row is not measured in the interpreter
+            run(factories[f].create(range), keys, THREADS[THREADS.length - 1], millis);
+
+            for (int threads : THREADS) {
+                Target target = factories[f].create(range);
+                for (int i = 0; i < range; i += 2) {
+                    target.put(keys[i]);
+                }
+                double throughput = run(target, keys, threads, millis);
+                System.out.printf("%-24s %2d threads   %8.2f M ops/s%n", names[f], threads, throughput / 1e6);
+            }
+            System.out.println();
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+/**
+ * Interface for the eviction policy of a BoundedCache. The cache reports every insert,
+ * access and removal to the policy, and asks it for a victim whenever the total weight of
+ * the cache is over its maximum. Every method is expected to run in O(1).
+ * @param <KeyType> the type of the keys within the cache
+ * @param <ValueType> the type of the values within the cache
+ */
+public interface EvictionPolicy<KeyType, ValueType> {
+
+    /**
+     * Called once by the cache before use. Structures that track keys, such as a
+     * frequency sketch, are sized by expectedSize, not by the maximum weight, which
+     * may be measured in bytes.
+     * @param maximumWeight the maximum total weight of the cache
+     * @param expectedSize the number of entries the cache is expected to hold when full
+     */
+    public void setMaximumWeight(long maximumWeight, int expectedSize);
+
+    /**
+     * Records that a new entry was added to the cache.
+     * @param entry the new entry
+     */
+    public void recordInsert(CacheEntry<KeyType, ValueType> entry);
+
+    /**
+     * Records that an entry of the cache was read.
+     * @param entry the entry that was accessed
+     */
+    public void recordAccess(CacheEntry<KeyType, ValueType> entry);
+
+    /**
+     * Records that a lookup missed the cache, so policies that track key frequency
+     * can count the miss too.
+     * @param key the key that was not found
+     */
+    public default void recordMiss(KeyType key) {
+    }
+
+    /**
+     * Records that an entry was removed from the cache by the user.
+     * @param entry the entry that was removed
+     */
+    public void recordRemove(CacheEntry<KeyType, ValueType> entry);
+
+    /**
+     * Chooses an entry to evict and removes it from the policy's own bookkeeping.
+     * @return the entry to be evicted, or null if the policy holds no entries
+     */
+    public CacheEntry<KeyType, ValueType> selectVictim();
+
+    /**
+     * Forgets every entry.
+     */
+    public void clear();
+
+}
@@ -0,0 +1,113 @@
+/**
+ * A count-min sketch of 4-bit counters that estimates how often each key was seen
+ * recently. Each key is counted in one counter of each of DEPTH rows, and its estimate
+ * is the smallest of those counters. Sixteen counters are packed into each long.
+ *
+ * Once the number of recorded events reaches the sample size, every counter is halved,
+ * so that keys which were popular long ago fade out of the sketch.
+ *
+ * @author Patrick Harvey
+ */
+class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+        0x97CB3127L, 0xB0C6BD99L, 0x4CCB1F5BL, 0x7CDB3C69L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table; // DEPTH rows of width counters
+    private final int width; // counters per row, a power of two
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * Creates a sketch sized for a cache of about the given number of entries.
+     * @param expectedEntries the number of entries the cache is expected to hold
+     */
+    FrequencySketch(long expectedEntries) {
+        long entries = Math.max(16, Math.min(expectedEntries, 1 << 26));
+        width = Integer.highestOneBit((int) entries - 1) << 1;
+        table = new long[DEPTH * width / 16];
+        sampleSize = 10 * width;
+    }
+
+    /**
+     * Returns the number of counters in each row.
+     * @return the width of this sketch
+     */
+    int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of recorded events after which every counter is halved.
+     * @return the sample size of this sketch
+     */
+    int getSampleSize() {
+        return sampleSize;
+    }
+
+    /**
+     * Returns the index of the counter for the given hash within the given row.
+     */
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return row * width + ((int) h & (width - 1));
+    }
+
+    /**
+     * Returns the estimated number of times the given hash was recorded.
+     * @param hash the spread hash of a key
+     * @return the estimated frequency, from 0 to 15
+     */
+    int frequency(int hash) {
+        int frequency = 15;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(hash, row);
+            int count = (int) ((table[index >>> 4] >>> ((index & 15) << 2)) & 0xF);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Records one occurrence of the given hash.
+     * @param hash the spread hash of a key
+     */
+    void increment(int hash) {
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(hash, row);
+            int shift = (index & 15) << 2;
+            if (((table[index >>> 4] >>> shift) & 0xF) != 0xF) {
+                table[index >>> 4] += 1L << shift;
+                added = true;
+            }
+        }
+
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Halves every counter.
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    /**
+     * Sets every counter to 0.
+     */
+    void clear() {
+        java.util.Arrays.fill(table, 0L);
+        additions = 0;
+    }
+
+}
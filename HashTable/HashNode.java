@@ -8,7 +8,7 @@
 class HashNode<KeyType extends Comparable<KeyType>, ValueType> {
 
     final private KeyType key;
-    final private ValueType value;
+    private ValueType value;
 
     /**
      * Constructor for the HashNode that creates a HashNode storing 
@@ -37,5 +37,13 @@ class HashNode<KeyType extends Comparable<KeyType>, ValueType> {
     public ValueType getValue() {
         return value;
     }
+
+    /**
+     * Replaces the value associated with this node.
+     * @param value - the new value for this node's key
+     */
+    void setValue(ValueType value) {
+        this.value = value;
+    }
     
 }
@@ -0,0 +1,60 @@
+/**
+ * A strategy for turning a key into an index of a hash table whose capacity is a power
+ * of two. hash() mixes the key into a 32-bit value, and indexFor() reduces that value to
+ * a table index, by default by masking off the low bits.
+ *
+ * The built in strategies are:
+ *   SPREAD    -- hashCode() with its high half xor'ed into its low half (as java.util.HashMap)
+ *   MURMUR3   -- the murmur3 32-bit finalizer, which mixes every input bit into every output bit
+ *   FIBONACCI -- multiply-shift by 2^32 / golden ratio, indexing with the high bits of the product
+ *
+ * @author Patrick Harvey
+ */
+public interface HashStrategy<KeyType> {
+
+    /**
+     * Mixes the given key into a 32-bit hash value.
+     * @param key the key to be hashed, never null
+     * @return the hash value of key
+     */
+    public int hash(KeyType key);
+
+    /**
+     * Reduces a hash value to an index of a table with the given capacity.
+     * @param hash the hash value returned by hash()
+     * @param capacity the capacity of the table, a power of two
+     * @return an index in [0, capacity)
+     */
+    public default int indexFor(int hash, int capacity) {
+        return hash & (capacity - 1);
+    }
+
+    public static final HashStrategy<Object> SPREAD = key -> {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    };
+
+    public static final HashStrategy<Object> MURMUR3 = key -> {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    };
+
+    public static final HashStrategy<Object> FIBONACCI = new HashStrategy<Object>() {
+        @Override
+        public int hash(Object key) {
+            return key.hashCode() * 0x9E3779B9;
+        }
+
+        // the high bits of the product are the well mixed ones
+        @Override
+        public int indexFor(int hash, int capacity) {
+            return (capacity == 1) ? 0 : hash >>> Integer.numberOfLeadingZeros(capacity - 1);
+        }
+    };
+
+}
@@ -0,0 +1,93 @@
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Compares the HashStrategy implementations on sequential and strided integer ID
+ * workloads. For each workload and strategy a HashTableMap is filled with the IDs, and the
+ * time taken to look every key up once is reported, together with the number of buckets
+ * that were turned into trees.
+ *
+ * The average and maximum number of keys compared by a lookup are measured by the table
+ * itself, through its statistics, so they include the shorter searches of tree buckets.
+ * They are only collected when the JVM is started with -DHashTableMap.statistics=true,
+ * which also slows every lookup down a little; run once with and once without it to get
+ * both the probe counts and the fastest times.
+ *
+ * Run with: java [-DHashTableMap.statistics=true] HashStrategyBenchmark [number of keys]
+ *
+ * @author Patrick Harvey
+ */
+public class HashStrategyBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    /**
+     * Fills a table with the given keys and prints its lookup time and probe counts.
+     *
+     * @param workload the name of the key pattern
+     * @param name the name of the strategy
+     * @param strategy the strategy being measured
+     * @param keys the keys to be inserted
+     */
+    private static void measure(String workload, String name, HashStrategy<Object> strategy, Integer[] keys) {
+        HashTableMap<Integer, Integer> map = new HashTableMap<>(16, strategy);
+        for (Integer key : keys) {
+            map.put(key, key);
+        }
+
+        long best = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (Integer key : keys) {
+                checksum += map.get(key);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        HashTableStatistics statistics = map.getStatistics();
+        String probes = HashTableMap.isStatisticsEnabled()
+            ? String.format("avg probes %6.2f   max probes %4d", statistics.getAverageProbes(), statistics.getMaxProbes())
+            : "avg probes    n/a   max probes  n/a";
+
+        System.out.printf("%-10s %-10s %s   tree buckets %6d   get %6.1f ns/op   (%d)%n",
+            workload, name, probes, statistics.getTreeBucketCount(),
+            (double) best / keys.length, checksum & 1);
+    }
+
+    /**
+     * Builds the keys of one workload.
+     *
+     * @param count the number of keys
+     * @param pattern maps a position to the key stored there
+     * @return the keys of the workload
+     */
+    private static Integer[] keys(int count, IntUnaryOperator pattern) {
+        Integer[] keys = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = pattern.applyAsInt(i);
+        }
+        return keys;
+    }
+
+    public static void main(String[] args) {
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        if (!HashTableMap.isStatisticsEnabled()) {
+            System.out.println("Probe counts need -DHashTableMap.statistics=true; timing only.");
+        }
+
+        String[] workloads = { "sequential", "stride64", "stride4096" };
+        Integer[][] keySets = {
+            keys(count, i -> i),
+            keys(count, i -> i * 64),
+            keys(count, i -> i * 4096)
+        };
+
+        for (int w = 0; w < workloads.length; w++) {
+            measure(workloads[w], "SPREAD", HashStrategy.SPREAD, keySets[w]);
+            measure(workloads[w], "MURMUR3", HashStrategy.MURMUR3, keySets[w]);
+            measure(workloads[w], "FIBONACCI", HashStrategy.FIBONACCI, keySets[w]);
+            System.out.println();
+        }
+    }
+
+}
@@ -8,14 +8,38 @@
 // Notes to Grader: see other classes below for full implementation
 // Classes Used: HashNode.java, MapADT.java, TestHashTable.java
 
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * An implementation of a Hash Table with generic types KeyType mapped to ValueType. 
  * This Hash Table handles collisions with the chaining method by utilizing a linked list
  * at each index of the hash table array.
  * 
+ * When created in incremental resize mode, growing the table does not rehash every entry
+ * at once. The old table is kept alongside the new one, and each put() or remove() moves
+ * a bounded number of buckets from the old table into the new one until the old table is
+ * empty. Lookups check both tables while this migration is running.
+ * 
+ * A chain that grows to TREEIFY_THRESHOLD entries is turned into a TreeBucket, a red black
+ * tree ordered by the keys' compareTo(). This keeps lookups O(log n) even when many keys
+ * share one hash value. The tree is turned back into a chain once it shrinks to
+ * UNTREEIFY_THRESHOLD entries. Keys must therefore have a compareTo() that is consistent
+ * with equals().
+ * 
+ * Keys are turned into indices by a HashStrategy, SPREAD unless another strategy is given.
+ * The capacity is always a power of two, so an index is found with a mask or a shift
+ * instead of a division.
+ * 
+ * getStatistics() returns a HashTableStatistics snapshot with the chain length histogram
+ * and load factor of the table. Lookup probe counts, hit and miss counts, and resize
+ * counts and times are also collected when the JVM is started with
+ * -DHashTableMap.statistics=true. STATISTICS is a static final flag, so when it is off the
+ * JIT compiler removes the counting code entirely.
+ * 
  * @author Patrick Harvey
  */
 public class HashTableMap<KeyType extends Comparable<KeyType>, ValueType> implements MapADT<KeyType, ValueType> {
@@ -24,27 +48,91 @@ public class HashTableMap<KeyType extends Comparable<KeyType>, ValueType> implem
     private int size;
     private int capacity;
     private static final double LOAD_FACTOR = 0.8;
+    private final HashStrategy<? super KeyType> hashStrategy;
+
+    // buckets that have been turned into trees, null where a bucket is still a chain
+    private TreeBucket<KeyType, ValueType>[] treeTable;
+    private static final int TREEIFY_THRESHOLD = 8;
+    private static final int UNTREEIFY_THRESHOLD = 6;
+
+    // fields used only in incremental resize mode
+    private final boolean incrementalResize;
+    private LinkedList<HashNode<KeyType, ValueType>>[] oldTable; // null when not migrating
+    private TreeBucket<KeyType, ValueType>[] oldTreeTable;
+    private int migrateIndex; // next bucket of oldTable to be moved
+    private static final int MIGRATION_STEP = 4; // buckets moved per put/remove
+
+    // statistics, only collected when STATISTICS is true
+    private static final boolean STATISTICS = Boolean.getBoolean("HashTableMap.statistics");
+    private int probes; // keys compared by the lookup in progress
+    private long hitCount;
+    private long missCount;
+    private long totalProbes;
+    private int maxProbes;
+    private int resizeCount;
+    private long resizeNanos;
 
     /**
      * This constructor creates a new HashTableMap object with the specified
-     * capacity amount.
+     * capacity amount, rounded up to a power of two.
      * 
      * @param capacity - the size of the map to be made
      */
-    @SuppressWarnings("unchecked")
     public HashTableMap(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * This constructor creates a new HashTableMap object with the specified
+     * capacity amount, optionally in incremental resize mode.
+     * 
+     * @param capacity - the size of the map to be made
+     * @param incrementalResize - true to spread each resize over later put/remove calls
+     */
+    public HashTableMap(int capacity, boolean incrementalResize) {
+        this(capacity, incrementalResize, HashStrategy.SPREAD);
+    }
+
+    /**
+     * This constructor creates a new HashTableMap object with the specified
+     * capacity amount that indexes its keys with the given hash strategy.
+     * 
+     * @param capacity - the size of the map to be made
+     * @param hashStrategy - the strategy that turns keys into table indices
+     */
+    public HashTableMap(int capacity, HashStrategy<? super KeyType> hashStrategy) {
+        this(capacity, false, hashStrategy);
+    }
+
+    /**
+     * This constructor creates a new HashTableMap object with the specified
+     * capacity amount, rounded up to a power of two, optionally in incremental
+     * resize mode, that indexes its keys with the given hash strategy.
+     * 
+     * @param capacity - the size of the map to be made
+     * @param incrementalResize - true to spread each resize over later put/remove calls
+     * @param hashStrategy - the strategy that turns keys into table indices
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public HashTableMap(int capacity, boolean incrementalResize, HashStrategy<? super KeyType> hashStrategy) {
 
         if (capacity <= 0) {
             throw new NumberFormatException("Cannot have a capacity <= 0.");
         }
+        if (hashStrategy == null) {
+            throw new NullPointerException("Cannot have a null hash strategy.");
+        }
 
-        hashTable = new LinkedList[capacity];
+        this.capacity = tableSizeFor(capacity);
+        hashTable = new LinkedList[this.capacity];
+        treeTable = new TreeBucket[this.capacity];
         size = 0;
-        this.capacity = capacity;
+        this.incrementalResize = incrementalResize;
+        this.hashStrategy = hashStrategy;
     }
 
     /**
-     * Default constructor that creates a HashTableMap with capacity of 10.
+     * Default constructor that creates a HashTableMap with capacity of 16.
      */
     public HashTableMap() {
         this(10);
@@ -67,15 +155,52 @@ public class HashTableMap<KeyType extends Comparable<KeyType>, ValueType> implem
     }
 
     /**
-     * Hashes the given KeyValue key with its type's corresponding hashCode() method
-     * inherited from Object base call. The hash is then mod'ed with the current capacity 
-     * of the hash table.
+     * Returns whether an incremental resize is currently moving entries
+     * from the old table into the new one.
+     * @return true if a migration is in progress, false otherwise
+     */
+    public boolean isResizing() {
+        return oldTable != null;
+    }
+
+    /**
+     * Returns the hash strategy used to index the keys of this table.
+     * @return the hash strategy of this map
+     */
+    public HashStrategy<? super KeyType> getHashStrategy() {
+        return hashStrategy;
+    }
+
+    /**
+     * Rounds the given capacity up to the next power of two.
+     * @param capacity - the requested capacity
+     * @return the smallest power of two >= capacity
+     */
+    private static int tableSizeFor(int capacity) {
+        int n = -1 >>> Integer.numberOfLeadingZeros(capacity - 1);
+        return (n < 0) ? 1 : (n >= (1 << 30)) ? (1 << 30) : n + 1;
+    }
+
+    /**
+     * Hashes the given KeyValue key with this table's HashStrategy, and reduces
+     * the hash to an index within the current capacity of the hash table.
      * 
      * @param key the key to be hashed for the table
      * @return the corresponding hashcode value for accessing the hash table
      */
     private int hash(KeyType key) {
-        return Math.abs(key.hashCode()) % capacity;
+        return hash(key, capacity);
+    }
+
+    /**
+     * Hashes the given key for a table with the given length.
+     * 
+     * @param key the key to be hashed
+     * @param length the length of the table being indexed, a power of two
+     * @return the corresponding index into a table of that length
+     */
+    private int hash(KeyType key, int length) {
+        return hashStrategy.indexFor(hashStrategy.hash(key), length);
     }
 
     /**
@@ -86,6 +211,25 @@ public class HashTableMap<KeyType extends Comparable<KeyType>, ValueType> implem
      * Load Factor = 0.8
      */
     private void growTable() {
+        long start = STATISTICS ? System.nanoTime() : 0;
+
+        if (incrementalResize) {
+            beginMigration();
+        } else {
+            rehashAll();
+        }
+
+        if (STATISTICS) {
+            resizeCount++;
+            resizeNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Doubles the capacity of the table and rehashes every entry at once.
+     */
+    private void rehashAll() {
+
         //get list of all elements of current hash Table
         LinkedList<HashNode<KeyType, ValueType>> hashEntries = getAllElements();
 
@@ -101,6 +245,285 @@ public class HashTableMap<KeyType extends Comparable<KeyType>, ValueType> implem
         }        
     }
 
+    /**
+     * Starts an incremental resize by keeping the current table as the old table
+     * and installing an empty table with double the capacity. Any migration still
+     * running from a previous resize is finished first.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void beginMigration() {
+        while (oldTable != null) {
+            moveBuckets(oldTable.length);
+        }
+
+        oldTable = hashTable;
+        oldTreeTable = treeTable;
+        migrateIndex = 0;
+        capacity *= 2;
+        hashTable = new LinkedList[capacity];
+        treeTable = new TreeBucket[capacity];
+    }
+
+    /**
+     * Moves up to the given number of buckets from the old table into the
+     * current table. Once every bucket has been moved the old table is dropped.
+     * 
+     * @param buckets the maximum number of old buckets to move
+     */
+    private void migrateBuckets(int buckets) {
+        if (oldTable == null) {
+            return;
+        }
+
+        long start = STATISTICS ? System.nanoTime() : 0;
+        moveBuckets(buckets);
+        if (STATISTICS) {
+            resizeNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Helper method for migrateBuckets() that moves the buckets.
+     * 
+     * @param buckets the maximum number of old buckets to move
+     */
+    private void moveBuckets(int buckets) {
+        LinkedList<HashNode<KeyType, ValueType>> moved = new LinkedList<>();
+
+        for (int i = 0; i < buckets && migrateIndex < oldTable.length; i++, migrateIndex++) {
+            addBucketTo(oldTable, oldTreeTable, migrateIndex, moved);
+
+            for (HashNode<KeyType, ValueType> element : moved) {
+                addToBucket(hashTable, treeTable, hash(element.getKey()), element);
+            }
+            moved.clear();
+            oldTable[migrateIndex] = null;
+            oldTreeTable[migrateIndex] = null;
+        }
+
+        if (migrateIndex == oldTable.length) {
+            oldTable = null;
+            oldTreeTable = null;
+        }
+    }
+
+    /**
+     * Searches the bucket at the given index of a table for the given key.
+     * 
+     * @param lists the chains of the table
+     * @param trees the tree buckets of the table
+     * @param index the index of the bucket
+     * @param key the key being searched for
+     * @return the node holding the key, or null if it is not in the bucket
+     */
+    private HashNode<KeyType, ValueType> findInBucket(LinkedList<HashNode<KeyType, ValueType>>[] lists,
+            TreeBucket<KeyType, ValueType>[] trees, int index, KeyType key) {
+
+        if (trees[index] != null) {
+            if (STATISTICS) {
+                probes += trees[index].probesFor(key);
+            }
+            return trees[index].find(key);
+        }
+
+        if (lists[index] != null) {
+            for (HashNode<KeyType, ValueType> item : lists[index]) {
+                if (STATISTICS) {
+                    probes++;
+                }
+                if (key.equals(item.getKey())) {
+                    return item;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Searches the current table, and the old table while a migration is running,
+     * for the given key.
+     * 
+     * @param key the key being searched for
+     * @return the node holding the key, or null if it is not in the hash table
+     */
+    private HashNode<KeyType, ValueType> findNode(KeyType key) {
+        return findNode(key, hash(key));
+    }
+
+    /**
+     * Searches for the given key on behalf of get(), getOrDefault() and containsKey(),
+     * recording the lookup when statistics are enabled.
+     * 
+     * @param key the key being searched for
+     * @return the node holding the key, or null if it is not in the hash table
+     */
+    private HashNode<KeyType, ValueType> lookup(KeyType key) {
+        if (!STATISTICS) {
+            return findNode(key);
+        }
+
+        probes = 0;
+        HashNode<KeyType, ValueType> node = findNode(key);
+
+        if (node != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        totalProbes += probes;
+        maxProbes = Math.max(maxProbes, probes);
+        return node;
+    }
+
+    /**
+     * Returns whether lookup and resize statistics are being collected, which is set
+     * with the HashTableMap.statistics system property.
+     * @return true if statistics are enabled, false otherwise
+     */
+    public static boolean isStatisticsEnabled() {
+        return STATISTICS;
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this table. The chain length histogram
+     * covers both tables while an incremental resize is running.
+     * @return the current statistics of this hash table
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public HashTableStatistics getStatistics() {
+        int[] histogram = new int[1];
+        int treeBuckets = 0;
+
+        LinkedList<HashNode<KeyType, ValueType>>[][] allLists = (oldTable == null)
+            ? new LinkedList[][] { hashTable } : new LinkedList[][] { hashTable, oldTable };
+        TreeBucket<KeyType, ValueType>[][] allTrees = (oldTable == null)
+            ? new TreeBucket[][] { treeTable } : new TreeBucket[][] { treeTable, oldTreeTable };
+
+        for (int t = 0; t < allLists.length; t++) {
+            for (int i = 0; i < allLists[t].length; i++) {
+                int length = 0;
+                if (allTrees[t][i] != null) {
+                    length = allTrees[t][i].size();
+                    treeBuckets++;
+                } else if (allLists[t][i] != null) {
+                    length = allLists[t][i].size();
+                }
+
+                if (length >= histogram.length) {
+                    histogram = Arrays.copyOf(histogram, length + 1);
+                }
+                histogram[length]++;
+            }
+        }
+
+        return new HashTableStatistics(size, capacity, histogram, treeBuckets, hitCount, missCount,
+            totalProbes, maxProbes, resizeCount, resizeNanos);
+    }
+
+    /**
+     * Searches the current table at the given index, and the old table while a
+     * migration is running, for the given key.
+     * 
+     * @param key the key being searched for
+     * @param index the index of key within the current table
+     * @return the node holding the key, or null if it is not in the hash table
+     */
+    private HashNode<KeyType, ValueType> findNode(KeyType key, int index) {
+        HashNode<KeyType, ValueType> node = findInBucket(hashTable, treeTable, index, key);
+
+        if (node == null && oldTable != null) {
+            node = findInBucket(oldTable, oldTreeTable, hash(key, oldTable.length), key);
+        }
+        return node;
+    }
+
+    /**
+     * Adds a node whose key is not yet in the table to the bucket at the given index,
+     * turning the chain into a tree once it reaches TREEIFY_THRESHOLD entries.
+     * 
+     * @param lists the chains of the table
+     * @param trees the tree buckets of the table
+     * @param index the index of the bucket
+     * @param node the node to be added
+     */
+    private void addToBucket(LinkedList<HashNode<KeyType, ValueType>>[] lists,
+            TreeBucket<KeyType, ValueType>[] trees, int index, HashNode<KeyType, ValueType> node) {
+
+        if (trees[index] != null) {
+            trees[index].insert(node);
+            return;
+        }
+
+        if (lists[index] == null) {
+            lists[index] = new LinkedList<>();
+        }
+        lists[index].addFirst(node);
+
+        //chain is too long, so move its nodes into a tree
+        if (lists[index].size() >= TREEIFY_THRESHOLD) {
+            TreeBucket<KeyType, ValueType> tree = new TreeBucket<>();
+            for (HashNode<KeyType, ValueType> item : lists[index]) {
+                tree.insert(item);
+            }
+            trees[index] = tree;
+            lists[index] = null;
+        }
+    }
+
+    /**
+     * Removes the node with the given key from the bucket at the given index, turning
+     * a tree back into a chain once it shrinks to UNTREEIFY_THRESHOLD entries.
+     * 
+     * @param lists the chains of the table
+     * @param trees the tree buckets of the table
+     * @param index the index of the bucket
+     * @param key the key of the node to be removed
+     * @return the removed node, or null if the key was not in the bucket
+     */
+    private HashNode<KeyType, ValueType> removeFromBucket(LinkedList<HashNode<KeyType, ValueType>>[] lists,
+            TreeBucket<KeyType, ValueType>[] trees, int index, KeyType key) {
+
+        if (trees[index] != null) {
+            HashNode<KeyType, ValueType> removee = trees[index].remove(key);
+
+            //tree is small again, so move its nodes back into a chain
+            if (trees[index].size() <= UNTREEIFY_THRESHOLD) {
+                lists[index] = new LinkedList<>();
+                trees[index].addAllTo(lists[index]);
+                trees[index] = null;
+            }
+            return removee;
+        }
+
+        if (lists[index] != null) {
+            for (HashNode<KeyType, ValueType> item : lists[index]) {
+                if (key.equals(item.getKey())) {
+                    lists[index].remove(item);
+                    return item;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds every node of the bucket at the given index to the given list.
+     * 
+     * @param lists the chains of the table
+     * @param trees the tree buckets of the table
+     * @param index the index of the bucket
+     * @param target the list receiving the nodes
+     */
+    private void addBucketTo(LinkedList<HashNode<KeyType, ValueType>>[] lists,
+            TreeBucket<KeyType, ValueType>[] trees, int index, LinkedList<HashNode<KeyType, ValueType>> target) {
+
+        if (trees[index] != null) {
+            trees[index].addAllTo(target);
+        } else if (lists[index] != null) {
+            target.addAll(lists[index]);
+        }
+    }
+
     /**
      * Helper method for the growTable() method to retrieve all elements currently
      * within the hash table as a linked list.
@@ -110,15 +533,9 @@ public class HashTableMap<KeyType extends Comparable<KeyType>, ValueType> implem
         //make a temporary linked list containing hash table entries
         LinkedList<HashNode<KeyType, ValueType>> tempList = new LinkedList<>();
 
-        //add all elements from hash table lists into temp list
-        for (LinkedList<HashNode<KeyType, ValueType>> list : hashTable) {
-
-            //add all elements from linked list into temp
-            if (list != null) {
-                for (HashNode<KeyType, ValueType> element : list) {
-                    tempList.add(element);
-                }
-            }
+        //add all elements from hash table chains and trees into temp list
+        for (int i = 0; i < hashTable.length; i++) {
+            addBucketTo(hashTable, treeTable, i, tempList);
         }
         return tempList;
     }
@@ -142,39 +559,49 @@ public class HashTableMap<KeyType extends Comparable<KeyType>, ValueType> implem
      */
     public boolean put(KeyType key, ValueType value) {
 
-        HashNode<KeyType, ValueType> node = new HashNode<>(key, value);
-        int hashValue = hash(node.getKey());
+        migrateBuckets(MIGRATION_STEP);
 
-        // if the index of table is empty, make new linked list
-        if (hashTable[hashValue] == null) {
-            hashTable[hashValue] = new LinkedList<>();
-            hashTable[hashValue].addFirst(node);
-            size++;
-
-            //check if table is overloaded, and grow table if necessary
-            if (tableIsOverloaded()) {
-                growTable();
-            }
+        int hashValue = hash(key);
 
-            return true;
-        } 
-        
         //if the value already exists in table, then false
-        else if (containsKey(key)) {
+        if (findNode(key, hashValue) != null) {
             return false;
-        } 
-        
-        //add the node at the head of the linked list, as normal
-        else {
-            hashTable[hashValue].addFirst(node);
-            size++;
-            
-            //check if table is overloaded, and grow table if necessary
-            if (tableIsOverloaded()) {
-                growTable();
-            }
-            return true;
         }
+
+        insertNode(key, value, hashValue);
+        return true;
+    }
+
+    /**
+     * Helper method that adds a key known not to be in the table to the bucket at the
+     * given index, growing the table if it becomes overloaded.
+     * 
+     * @param key - the key for storing the item in the hash table
+     * @param value - the value to be stored in the hash table
+     * @param hashValue - the index of key within the current table
+     */
+    private void insertNode(KeyType key, ValueType value, int hashValue) {
+        //add the node at the head of the chain, or into the bucket's tree
+        addToBucket(hashTable, treeTable, hashValue, new HashNode<>(key, value));
+        size++;
+
+        //check if table is overloaded, and grow table if necessary
+        if (tableIsOverloaded()) {
+            growTable();
+        }
+    }
+
+    /**
+     * Helper method that removes a node found by findNode() from whichever table holds it.
+     * 
+     * @param key - the key of the node to be removed
+     * @param hashValue - the index of key within the current table
+     */
+    private void removeNode(KeyType key, int hashValue) {
+        if (removeFromBucket(hashTable, treeTable, hashValue, key) == null) {
+            removeFromBucket(oldTable, oldTreeTable, hash(key, oldTable.length), key);
+        }
+        size--;
     }
 
     /**
@@ -188,49 +615,156 @@ public class HashTableMap<KeyType extends Comparable<KeyType>, ValueType> implem
      */
     public ValueType get(KeyType key) throws NoSuchElementException {
 
+        HashNode<KeyType, ValueType> node = lookup(key);
+
+        //if key exists, return value
+        if (node != null) {
+            return node.getValue();
+        }
+
+        //else throw exception
+        throw new NoSuchElementException("Key did not exist within hash table.");
+    }
+
+
+    /**
+     * Returns the value for the given key, or defaultValue if the key does not exist
+     * within the hash table. Unlike get(), a miss does not throw.
+     * 
+     * @param key the key being searched for within the hashtable
+     * @param defaultValue the value returned when the key is not in the table
+     * @return the value for key, or defaultValue if there is none
+     */
+    @Override
+    public ValueType getOrDefault(KeyType key, ValueType defaultValue) {
+        HashNode<KeyType, ValueType> node = lookup(key);
+        return (node != null) ? node.getValue() : defaultValue;
+    }
+
+    /**
+     * Stores the value for the given key if the key does not already exist within
+     * the hash table, searching the key's bucket only once.
+     * 
+     * @param key - the key for storing the item in the hash table
+     * @param value - the value to be stored in the hash table
+     * @return the value already stored for key, or null if the value was stored
+     */
+    @Override
+    public ValueType putIfAbsent(KeyType key, ValueType value) {
+
+        migrateBuckets(MIGRATION_STEP);
+
         int hashValue = hash(key);
+        HashNode<KeyType, ValueType> node = findNode(key, hashValue);
 
-        //if the array index is empty
-        if (hashTable[hashValue] == null) {
-            throw new NoSuchElementException("Key did not exist within hash table.");
+        if (node != null) {
+            return node.getValue();
         }
 
-        //search in linked list for key
-        for (HashNode<KeyType, ValueType> item : hashTable[hashValue]) {
+        insertNode(key, value, hashValue);
+        return null;
+    }
+
+    /**
+     * Returns the value for the given key, first storing the value computed by
+     * mappingFunction if the key does not exist within the hash table. A null
+     * result is not stored.
+     * 
+     * @param key - the key being searched for within the hashtable
+     * @param mappingFunction - computes the value for a missing key
+     * @return the current or computed value for key, or null if none was computed
+     */
+    @Override
+    public ValueType computeIfAbsent(KeyType key,
+            Function<? super KeyType, ? extends ValueType> mappingFunction) {
+
+        migrateBuckets(MIGRATION_STEP);
 
-            //if key exists, return value
-            if (key.equals(item.getKey())) {
-                return item.getValue();
-            }
+        int hashValue = hash(key);
+        HashNode<KeyType, ValueType> node = findNode(key, hashValue);
+
+        if (node != null) {
+            return node.getValue();
         }
 
-        //else throw exception
-        throw new NoSuchElementException("Key did not exist within hash table.");
+        ValueType value = mappingFunction.apply(key);
+        if (value != null) {
+            insertNode(key, value, hashValue);
+        }
+        return value;
     }
 
+    /**
+     * Replaces the value for the given key with the result of remappingFunction, which
+     * is passed the current value, or null if the key does not exist within the table.
+     * A null result removes the key from the hash table.
+     * 
+     * @param key - the key whose value is being computed
+     * @param remappingFunction - computes the new value from the key and the current value
+     * @return the new value for key, or null if the key is no longer in the table
+     */
+    @Override
+    public ValueType compute(KeyType key,
+            BiFunction<? super KeyType, ? super ValueType, ? extends ValueType> remappingFunction) {
+
+        migrateBuckets(MIGRATION_STEP);
+
+        int hashValue = hash(key);
+        HashNode<KeyType, ValueType> node = findNode(key, hashValue);
+        ValueType value = remappingFunction.apply(key, (node != null) ? node.getValue() : null);
+
+        if (node == null) {
+            if (value != null) {
+                insertNode(key, value, hashValue);
+            }
+        } else if (value != null) {
+            node.setValue(value);
+        } else {
+            removeNode(key, hashValue);
+        }
+        return value;
+    }
 
     /**
-    * Searches through the hash table for the given key.
-    *
-    * @return true if the hash table contains the given key, false otherwise
-    */
-    public boolean containsKey(KeyType key) {
+     * Stores the given value for the key if the key does not exist within the table.
+     * Otherwise the value is replaced by the result of remappingFunction applied to the
+     * current value and the given value. A null result removes the key from the table.
+     * 
+     * @param key - the key whose value is being merged
+     * @param value - the value stored for a missing key, and merged into a present one
+     * @param remappingFunction - combines the current value with the given value
+     * @return the new value for key, or null if the key is no longer in the table
+     */
+    @Override
+    public ValueType merge(KeyType key, ValueType value,
+            BiFunction<? super ValueType, ? super ValueType, ? extends ValueType> remappingFunction) {
+
+        migrateBuckets(MIGRATION_STEP);
+
         int hashValue = hash(key);
+        HashNode<KeyType, ValueType> node = findNode(key, hashValue);
 
-        //if the array index is empty
-        if (hashTable[hashValue] == null) {
-            return false;
+        if (node == null) {
+            insertNode(key, value, hashValue);
+            return value;
         }
 
-        //search through linked list at hash value index for key
-        for (HashNode<KeyType, ValueType> item : hashTable[hashValue]) {
-            if (key.equals(item.getKey())) {
-                return true;
-            }
+        ValueType newValue = remappingFunction.apply(node.getValue(), value);
+        if (newValue != null) {
+            node.setValue(newValue);
+        } else {
+            removeNode(key, hashValue);
         }
+        return newValue;
+    }
 
-        //key does not exist within table
-        return false;
+    /**
+    * Searches through the hash table for the given key.
+    *
+    * @return true if the hash table contains the given key, false otherwise
+    */
+    public boolean containsKey(KeyType key) {
+        return lookup(key) != null;
     }
 
 
@@ -243,35 +777,35 @@ public class HashTableMap<KeyType extends Comparable<KeyType>, ValueType> implem
      */ 
     public ValueType remove(KeyType key) {
 
-        int hashValue = hash(key);
-        ValueType removee;
+        migrateBuckets(MIGRATION_STEP);
 
-        //if the array index is empty
-        if (hashTable[hashValue] == null) {
-            return null;
-        }
+        //search through the bucket for key at hashed index
+        HashNode<KeyType, ValueType> removee = removeFromBucket(hashTable, treeTable, hash(key), key);
 
-        //search through list for key at hashed index
-        for (HashNode<KeyType, ValueType> item : hashTable[hashValue]) {
-            if (key.equals(item.getKey())) {
-                removee = get(key);
-                hashTable[hashValue].remove(item);
-                size--;
-                return removee;
-            }
+        //search the old table if a migration is running
+        if (removee == null && oldTable != null) {
+            removee = removeFromBucket(oldTable, oldTreeTable, hash(key, oldTable.length), key);
         }
 
         //value did not exist within hash table
-        return null;
+        if (removee == null) {
+            return null;
+        }
+
+        size--;
+        return removee.getValue();
     }
 
     /**
      * Clears the current hash table of all entries and resets size to 0.
      */
-    @SuppressWarnings("unchecked")
+    @SuppressWarnings({"unchecked", "rawtypes"})
     public void clear() {
         hashTable = new LinkedList[capacity];
+        treeTable = new TreeBucket[capacity];
+        oldTable = null;
+        oldTreeTable = null;
         size = 0;
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
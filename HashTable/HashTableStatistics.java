@@ -0,0 +1,136 @@
+import java.util.Arrays;
+
+/**
+ * A plain, immutable snapshot of the statistics of a HashTableMap, as returned by
+ * HashTableMap.getStatistics(). The bucket figures are measured when the snapshot is
+ * taken. The lookup and resize counters are only collected while the HashTableMap
+ * statistics flag is enabled, and are 0 otherwise.
+ *
+ * @author Patrick Harvey
+ */
+public final class HashTableStatistics {
+
+    private final int size;
+    private final int capacity;
+    private final int[] chainLengthHistogram;
+    private final int treeBucketCount;
+    private final long hitCount;
+    private final long missCount;
+    private final long totalProbes;
+    private final int maxProbes;
+    private final int resizeCount;
+    private final long resizeNanos;
+
+    /**
+     * Creates a snapshot holding the given figures.
+     *
+     * @param size - the number of entries within the table
+     * @param capacity - the number of buckets of the table
+     * @param chainLengthHistogram - the number of buckets holding i entries, at index i
+     * @param treeBucketCount - the number of buckets that are trees
+     * @param hitCount - the number of lookups that found their key
+     * @param missCount - the number of lookups that did not find their key
+     * @param totalProbes - the number of keys compared over all lookups
+     * @param maxProbes - the most keys compared by a single lookup
+     * @param resizeCount - the number of times the table grew
+     * @param resizeNanos - the total time spent growing the table
+     */
+    HashTableStatistics(int size, int capacity, int[] chainLengthHistogram, int treeBucketCount,
+                        long hitCount, long missCount, long totalProbes, int maxProbes,
+                        int resizeCount, long resizeNanos) {
+        this.size = size;
+        this.capacity = capacity;
+        this.chainLengthHistogram = chainLengthHistogram;
+        this.treeBucketCount = treeBucketCount;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.totalProbes = totalProbes;
+        this.maxProbes = maxProbes;
+        this.resizeCount = resizeCount;
+        this.resizeNanos = resizeNanos;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the current load factor, size / capacity.
+     * @return the load factor of the table
+     */
+    public double getLoadFactor() {
+        return (double) size / capacity;
+    }
+
+    /**
+     * Returns the chain length histogram, where index i holds the number of
+     * buckets that contain exactly i entries.
+     * @return a copy of the chain length histogram
+     */
+    public int[] getChainLengthHistogram() {
+        return chainLengthHistogram.clone();
+    }
+
+    /**
+     * Returns the length of the longest bucket.
+     * @return the maximum chain length
+     */
+    public int getMaxChainLength() {
+        return chainLengthHistogram.length - 1;
+    }
+
+    public int getTreeBucketCount() {
+        return treeBucketCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the average number of keys compared by a lookup.
+     * @return the average probe count, or 0 if no lookups were recorded
+     */
+    public double getAverageProbes() {
+        long lookups = hitCount + missCount;
+        return (lookups == 0) ? 0 : (double) totalProbes / lookups;
+    }
+
+    public int getMaxProbes() {
+        return maxProbes;
+    }
+
+    public int getResizeCount() {
+        return resizeCount;
+    }
+
+    /**
+     * Returns the total time spent growing the table, including the bucket moves
+     * of an incremental resize.
+     * @return the cumulative resize time in nanoseconds
+     */
+    public long getResizeNanos() {
+        return resizeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "HashTableStatistics[size=" + size + ", capacity=" + capacity
+            + ", loadFactor=" + String.format("%.3f", getLoadFactor())
+            + ", chainLengthHistogram=" + Arrays.toString(chainLengthHistogram)
+            + ", treeBuckets=" + treeBucketCount
+            + ", hits=" + hitCount + ", misses=" + missCount
+            + ", averageProbes=" + String.format("%.3f", getAverageProbes())
+            + ", maxProbes=" + maxProbes
+            + ", resizes=" + resizeCount + ", resizeNanos=" + resizeNanos + "]";
+    }
+
+}
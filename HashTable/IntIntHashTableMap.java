@@ -0,0 +1,308 @@
+import java.util.NoSuchElementException;
+
+/**
+ * A hash table mapping primitive int keys to primitive int values.
+ * Keys are kept in a int[] and values in a parallel array, so no key is ever boxed
+ * and no node is created per entry.
+ * Collisions are resolved with linear probing and removals shift the following entries
+ * back, so the table never holds tombstones.
+ *
+ * The key 0 marks an empty slot in the key array. An entry for that key is
+ * therefore stored outside of the arrays.
+ *
+ * Once the table has grown to its final capacity, put() and get() do not allocate.
+ *
+ * @author Patrick Harvey
+ */
+public class IntIntHashTableMap {
+
+    private static final int EMPTY = 0;
+    private static final double LOAD_FACTOR = 0.8;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int capacity;
+    private int mask;
+
+    // the entry for the EMPTY key, which cannot be stored in keys[]
+    private boolean hasEmptyKey;
+    private int emptyKeyValue;
+    // returned by remove() when the key is not in the table
+    private final int missingValue;
+
+    /**
+     * This constructor creates a new IntIntHashTableMap object with at least the
+     * specified capacity. The capacity is rounded up to a power of two.
+     * 
+     * @param capacity - the minimum size of the map to be made
+     * @param missingValue - the value remove() returns for a key not in the table
+     */
+    public IntIntHashTableMap(int capacity, int missingValue) {
+
+        if (capacity <= 0) {
+            throw new NumberFormatException("Cannot have a capacity <= 0.");
+        }
+
+        this.capacity = tableSizeFor(capacity);
+        this.mask = this.capacity - 1;
+        keys = new int[this.capacity];
+        values = new int[this.capacity];
+        size = 0;
+        this.missingValue = missingValue;
+    }
+
+    /**
+     * This constructor creates a new IntIntHashTableMap object with at least the
+     * specified capacity, reporting missing keys from remove() as 0.
+     * 
+     * @param capacity - the minimum size of the map to be made
+     */
+    public IntIntHashTableMap(int capacity) {
+        this(capacity, 0);
+    }
+
+    /**
+     * Default constructor that creates a IntIntHashTableMap with capacity of 16.
+     */
+    public IntIntHashTableMap() {
+        this(16, 0);
+    }
+
+    /**
+     * Returns the size of this IntIntHashTableMap
+     * @return the size of this map
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the current number of slots in this table.
+     * @return the current capacity of this hash table
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the value that remove() reports when a key is not in the table.
+     * @return the missing value of this map
+     */
+    public int getMissingValue() {
+        return missingValue;
+    }
+
+    /**
+     * Rounds the given capacity up to the next power of two.
+     * @param capacity - the requested capacity
+     * @return the smallest power of two >= capacity
+     */
+    private static int tableSizeFor(int capacity) {
+        int n = -1 >>> Integer.numberOfLeadingZeros(capacity - 1);
+        return (n < 0) ? 1 : (n >= (1 << 30)) ? (1 << 30) : n + 1;
+    }
+
+    /**
+     * Hashes the given key with a multiplicative mix, and then masks it with the
+     * current capacity of the table. Sequential keys are spread across the table
+     * instead of landing in one run of adjacent slots.
+     *
+     * @param key the key to be hashed for the table
+     * @return the home slot of the key within the table
+     */
+    private int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Helper method that probes the table for the given key.
+     *
+     * @param key the key being searched for, never EMPTY
+     * @return the slot holding the key, or -(insertion slot + 1) if it is not in the table
+     */
+    private int findSlot(int key) {
+        int index = hash(key);
+
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -(index + 1);
+    }
+
+    /**
+     * Helper method to determine if the hash table's load factor is >= 0.8
+     * by comparing (size / capacity) to LOAD_FACTOR fields.
+     * @return true if the table IS overloaded, false otherwise
+     */
+    private boolean tableIsOverloaded() {
+        return ((double) size / capacity) >= LOAD_FACTOR;
+    }
+
+    /**
+     * Doubles the capacity of the table and reinserts every entry into the
+     * new key and value arrays.
+     */
+    private void growTable() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+
+        capacity *= 2;
+        mask = capacity - 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = -findSlot(oldKeys[i]) - 1;
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Stores the key-value pair in the hash table if the key is not already present.
+     *
+     * @param key - the key for storing the item in the hash table
+     * @param value - the value to be stored in the hash table
+     * @return true if the value was put in the table, false if the key already existed
+     */
+    public boolean put(int key, int value) {
+
+        if (key == EMPTY) {
+            if (hasEmptyKey) {
+                return false;
+            }
+            hasEmptyKey = true;
+            emptyKeyValue = value;
+            size++;
+            return true;
+        }
+
+        int index = findSlot(key);
+        if (index >= 0) {
+            return false;
+        }
+
+        index = -index - 1;
+        keys[index] = key;
+        values[index] = value;
+        size++;
+
+        //check if table is overloaded, and grow table if necessary
+        if (tableIsOverloaded()) {
+            growTable();
+        }
+        return true;
+    }
+
+    /**
+     * This method searches for the value for the given key through this hash table.
+     * If the key does not exist, then it throws an exception.
+     *
+     * @param key the key being searched for within the hashtable
+     * @return the value associated with key, if it exists
+     * @throws NoSuchElementException if the value does not exist within the hash table
+     */
+    public int get(int key) throws NoSuchElementException {
+
+        if (key == EMPTY) {
+            if (!hasEmptyKey) {
+                throw new NoSuchElementException("Key did not exist within hash table.");
+            }
+            return emptyKeyValue;
+        }
+
+        int index = findSlot(key);
+        if (index < 0) {
+            throw new NoSuchElementException("Key did not exist within hash table.");
+        }
+        return values[index];
+    }
+
+    /**
+    * Searches through the hash table for the given key.
+    *
+    * @return true if the hash table contains the given key, false otherwise
+    */
+    public boolean containsKey(int key) {
+        if (key == EMPTY) {
+            return hasEmptyKey;
+        }
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * Removes the value associated with the give key from the hash table, and
+     * returns that value. The entries following the removed one are shifted back
+     * so that no tombstone is left behind. If the given key does not exist within
+     * the table, it returns the missing value.
+     *
+     * @return the removed value if the key-value pair exists within, otherwise the missing value
+     */
+    public int remove(int key) {
+
+        if (key == EMPTY) {
+            if (!hasEmptyKey) {
+                return missingValue;
+            }
+            int removee = emptyKeyValue;
+            hasEmptyKey = false;
+            emptyKeyValue = 0;
+            size--;
+            return removee;
+        }
+
+        int index = findSlot(key);
+        if (index < 0) {
+            return missingValue;
+        }
+
+        int removee = values[index];
+        shiftKeys(index);
+        size--;
+        return removee;
+    }
+
+    /**
+     * Fills the hole left at the given slot by moving back any following entry
+     * whose home slot does not lie between the hole and the entry itself.
+     *
+     * @param hole the slot that was just emptied
+     */
+    private void shiftKeys(int hole) {
+        int index = (hole + 1) & mask;
+
+        while (keys[index] != EMPTY) {
+            int home = hash(keys[index]);
+
+            // the entry may move back if its home is cyclically outside (hole, index]
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                keys[hole] = keys[index];
+                values[hole] = values[index];
+                hole = index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[hole] = EMPTY;
+        values[hole] = 0;
+    }
+
+    /**
+     * Clears the current hash table of all entries and resets size to 0.
+     */
+    public void clear() {
+        keys = new int[capacity];
+        values = new int[capacity];
+        hasEmptyKey = false;
+        emptyKeyValue = 0;
+        size = 0;
+    }
+
+}
@@ -0,0 +1,45 @@
+/**
+ * A least recently used eviction policy. Entries are kept in a single intrusive
+ * access order list, and the least recently used entry is always the victim.
+ *
+ * @author Patrick Harvey
+ */
+public class LruPolicy<KeyType, ValueType> implements EvictionPolicy<KeyType, ValueType> {
+
+    private final AccessOrderList<KeyType, ValueType> accessOrder = new AccessOrderList<>();
+
+    @Override
+    public void setMaximumWeight(long maximumWeight, int expectedSize) {
+        // the victim does not depend on the maximum weight
+    }
+
+    @Override
+    public void recordInsert(CacheEntry<KeyType, ValueType> entry) {
+        accessOrder.addLast(entry);
+    }
+
+    @Override
+    public void recordAccess(CacheEntry<KeyType, ValueType> entry) {
+        accessOrder.moveToLast(entry);
+    }
+
+    @Override
+    public void recordRemove(CacheEntry<KeyType, ValueType> entry) {
+        accessOrder.remove(entry);
+    }
+
+    @Override
+    public CacheEntry<KeyType, ValueType> selectVictim() {
+        CacheEntry<KeyType, ValueType> victim = accessOrder.peekFirst();
+        if (victim != null) {
+            accessOrder.remove(victim);
+        }
+        return victim;
+    }
+
+    @Override
+    public void clear() {
+        accessOrder.clear();
+    }
+
+}
@@ -1,5 +1,7 @@
 
 import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 public interface MapADT<KeyType, ValueType> {
     
@@ -10,4 +12,93 @@ public interface MapADT<KeyType, ValueType> {
     public ValueType remove(KeyType key);
     public void clear();
 
+    /**
+     * Returns the value for the given key, or defaultValue if the key is not in the map.
+     * Unlike get(), a miss does not throw.
+     * 
+     * @param key the key being searched for
+     * @param defaultValue the value returned when the key is not in the map
+     * @return the value for key, or defaultValue if there is none
+     */
+    public default ValueType getOrDefault(KeyType key, ValueType defaultValue) {
+        return containsKey(key) ? get(key) : defaultValue;
+    }
+
+    /**
+     * Stores the value for the given key if the key is not already in the map.
+     * 
+     * @param key the key for storing the value
+     * @param value the value to be stored
+     * @return the value already stored for key, or null if the value was stored
+     */
+    public default ValueType putIfAbsent(KeyType key, ValueType value) {
+        if (containsKey(key)) {
+            return get(key);
+        }
+        put(key, value);
+        return null;
+    }
+
+    /**
+     * Returns the value for the given key, first storing the value computed by
+     * mappingFunction if the key is not in the map. A null result is not stored.
+     * 
+     * @param key the key being searched for
+     * @param mappingFunction computes the value for a missing key
+     * @return the current or computed value for key, or null if none was computed
+     */
+    public default ValueType computeIfAbsent(KeyType key,
+            Function<? super KeyType, ? extends ValueType> mappingFunction) {
+        if (containsKey(key)) {
+            return get(key);
+        }
+        ValueType value = mappingFunction.apply(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Replaces the value for the given key with the result of remappingFunction, which
+     * is passed the current value, or null if the key is not in the map. A null result
+     * removes the key from the map.
+     * 
+     * @param key the key whose value is being computed
+     * @param remappingFunction computes the new value from the key and the current value
+     * @return the new value for key, or null if the key is no longer in the map
+     */
+    public default ValueType compute(KeyType key,
+            BiFunction<? super KeyType, ? super ValueType, ? extends ValueType> remappingFunction) {
+        ValueType oldValue = containsKey(key) ? remove(key) : null;
+        ValueType value = remappingFunction.apply(key, oldValue);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Stores the given value for the key if the key is not in the map. Otherwise the
+     * value is replaced by the result of remappingFunction applied to the current value
+     * and the given value. A null result removes the key from the map.
+     * 
+     * @param key the key whose value is being merged
+     * @param value the value stored for a missing key, and merged into a present one
+     * @param remappingFunction combines the current value with the given value
+     * @return the new value for key, or null if the key is no longer in the map
+     */
+    public default ValueType merge(KeyType key, ValueType value,
+            BiFunction<? super ValueType, ? super ValueType, ? extends ValueType> remappingFunction) {
+        if (!containsKey(key)) {
+            put(key, value);
+            return value;
+        }
+        ValueType newValue = remappingFunction.apply(remove(key), value);
+        if (newValue != null) {
+            put(key, newValue);
+        }
+        return newValue;
+    }
+
 }
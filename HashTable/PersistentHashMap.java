@@ -0,0 +1,672 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * An immutable hash array mapped trie (HAMT) mapping generic KeyType keys to ValueType values.
+ * Every version of the map is immutable, so any number of threads may read it without locking.
+ * plus() and minus() return a new version in O(log32 n). The new version shares every node
+ * off the changed path with the version it came from.
+ *
+ * Each level of the trie consumes 5 bits of the key's hash. A BitmapNode keeps a 32-bit bitmap
+ * of the occupied positions at its level and a packed array holding only those slots. A slot
+ * is either a Leaf holding one entry or a child node. Keys whose full hashes are equal share a
+ * CollisionNode.
+ *
+ * As a MapADT the map is read-only: get(), getOrDefault(), containsKey() and size() work, and
+ * every mutating method (put, remove, clear, putIfAbsent, computeIfAbsent, compute and merge)
+ * throws UnsupportedOperationException. Use plus(), minus() and empty() instead, or a Builder
+ * for bulk loads. A Builder edits the nodes it created in place until build() is called.
+ *
+ * diff() reports the differences between two versions. It skips every subtree that the two
+ * versions share, so comparing a version with one derived from it costs time proportional to
+ * the changes rather than the size of the maps.
+ *
+ * @author Patrick Harvey
+ */
+public final class PersistentHashMap<KeyType extends Comparable<KeyType>, ValueType> implements MapADT<KeyType, ValueType> {
+
+    /**
+     * Receives the differences found by diff().
+     */
+    public interface DiffListener<KeyType, ValueType> {
+        public void added(KeyType key, ValueType value);
+        public void removed(KeyType key, ValueType value);
+        public void changed(KeyType key, ValueType oldValue, ValueType newValue);
+    }
+
+    /**
+     * A single immutable entry of the trie.
+     */
+    private static final class Leaf {
+        final int hash;
+        final Object key;
+        final Object value;
+
+        Leaf(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * An interior node of the trie. A node whose edit token matches the token of a live
+     * Builder belongs to that builder and may be changed in place.
+     */
+    private static final class BitmapNode {
+        int bitmap;
+        Object[] slots; // each a Leaf, BitmapNode or CollisionNode
+        final Object edit;
+
+        BitmapNode(int bitmap, Object[] slots, Object edit) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+            this.edit = edit;
+        }
+    }
+
+    /**
+     * Holds every entry whose key has the given full hash.
+     */
+    private static final class CollisionNode {
+        final int hash;
+        final Leaf[] leaves;
+
+        CollisionNode(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+    }
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final BitmapNode EMPTY_ROOT = new BitmapNode(0, new Object[0], null);
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(EMPTY_ROOT, 0);
+
+    private final BitmapNode root;
+    private final int size;
+
+    private PersistentHashMap(BitmapNode root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty version of the map.
+     * @return a map with no entries
+     */
+    @SuppressWarnings("unchecked")
+    public static <KeyType extends Comparable<KeyType>, ValueType> PersistentHashMap<KeyType, ValueType> empty() {
+        return (PersistentHashMap<KeyType, ValueType>) EMPTY;
+    }
+
+    /**
+     * Returns the number of entries within this version.
+     * @return the size of this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Spreads the high bits of the key's hashCode() into the low bits, which are
+     * consumed first.
+     */
+    private static int spread(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitFor(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static int slotIndex(int bitmap, int bit) {
+        return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    /**
+     * Helper method that walks the trie for the given key.
+     *
+     * @param key the key being searched for
+     * @return the leaf holding the key, or null if it is not in this version
+     */
+    private Leaf find(KeyType key) {
+        return find(root, 0, spread(key), key);
+    }
+
+    private static Leaf find(Object slot, int shift, int hash, Object key) {
+        while (slot instanceof BitmapNode) {
+            BitmapNode node = (BitmapNode) slot;
+            int bit = bitFor(hash, shift);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            slot = node.slots[slotIndex(node.bitmap, bit)];
+            shift += BITS;
+        }
+
+        if (slot instanceof Leaf) {
+            Leaf leaf = (Leaf) slot;
+            return (leaf.hash == hash && key.equals(leaf.key)) ? leaf : null;
+        }
+
+        if (slot instanceof CollisionNode && ((CollisionNode) slot).hash == hash) {
+            for (Leaf leaf : ((CollisionNode) slot).leaves) {
+                if (key.equals(leaf.key)) {
+                    return leaf;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This method searches for the value for the given key in this version.
+     * If the key does not exist, then it throws an exception.
+     *
+     * @param key the key being searched for within the map
+     * @return the value associated with key, if it exists
+     * @throws NoSuchElementException if the key does not exist within this version
+     */
+    @SuppressWarnings("unchecked")
+    public ValueType get(KeyType key) throws NoSuchElementException {
+        Leaf leaf = find(key);
+
+        if (leaf == null) {
+            throw new NoSuchElementException("Key did not exist within hash map.");
+        }
+        return (ValueType) leaf.value;
+    }
+
+    /**
+     * Returns the value for the given key, or defaultValue if the key is not in this version.
+     *
+     * @param key the key being searched for within the map
+     * @param defaultValue the value returned when the key is not in the map
+     * @return the value for key, or defaultValue if there is none
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public ValueType getOrDefault(KeyType key, ValueType defaultValue) {
+        Leaf leaf = find(key);
+        return (leaf != null) ? (ValueType) leaf.value : defaultValue;
+    }
+
+    /**
+    * Searches through this version for the given key.
+    *
+    * @return true if the map contains the given key, false otherwise
+    */
+    public boolean containsKey(KeyType key) {
+        return find(key) != null;
+    }
+
+    /**
+     * Returns a new version that maps the given key to the given value. Unlike put(), an
+     * existing value for the key is replaced. This version is not changed.
+     *
+     * @param key - the key for storing the value
+     * @param value - the value to be stored
+     * @return the new version, or this version if key already maps to value
+     */
+    public PersistentHashMap<KeyType, ValueType> plus(KeyType key, ValueType value) {
+        boolean[] added = new boolean[1];
+        BitmapNode newRoot = (BitmapNode) put(root, 0, spread(key), key, value, null, added);
+        return (newRoot == root) ? this : new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Returns a new version without the given key. This version is not changed.
+     *
+     * @param key - the key to be removed
+     * @return the new version, or this version if key is not in the map
+     */
+    public PersistentHashMap<KeyType, ValueType> minus(KeyType key) {
+        boolean[] removed = new boolean[1];
+        Object newRoot = remove(root, 0, spread(key), key, null, removed);
+        if (!removed[0]) {
+            return this;
+        }
+        return new PersistentHashMap<>((newRoot == null) ? EMPTY_ROOT : (BitmapNode) newRoot, size - 1);
+    }
+
+    /**
+     * Not supported, since every version is immutable. Use plus() instead.
+     * @throws UnsupportedOperationException always
+     */
+    public boolean put(KeyType key, ValueType value) {
+        throw new UnsupportedOperationException("PersistentHashMap is immutable, use plus().");
+    }
+
+    /**
+     * Not supported, since every version is immutable. Use minus() instead.
+     * @throws UnsupportedOperationException always
+     */
+    public ValueType remove(KeyType key) {
+        throw new UnsupportedOperationException("PersistentHashMap is immutable, use minus().");
+    }
+
+    /**
+     * Not supported, since every version is immutable. Use empty() instead.
+     * @throws UnsupportedOperationException always
+     */
+    public void clear() {
+        throw new UnsupportedOperationException("PersistentHashMap is immutable, use empty().");
+    }
+
+    /**
+     * Not supported, since every version is immutable. Use containsKey() and plus() instead.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public ValueType putIfAbsent(KeyType key, ValueType value) {
+        throw new UnsupportedOperationException("PersistentHashMap is immutable, use containsKey() and plus().");
+    }
+
+    /**
+     * Not supported, since every version is immutable. Use containsKey() and plus() instead.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public ValueType computeIfAbsent(KeyType key,
+            Function<? super KeyType, ? extends ValueType> mappingFunction) {
+        throw new UnsupportedOperationException("PersistentHashMap is immutable, use containsKey() and plus().");
+    }
+
+    /**
+     * Not supported, since every version is immutable. Use getOrDefault() with plus() or
+     * minus() instead.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public ValueType compute(KeyType key,
+            BiFunction<? super KeyType, ? super ValueType, ? extends ValueType> remappingFunction) {
+        throw new UnsupportedOperationException("PersistentHashMap is immutable, use getOrDefault() with plus() or minus().");
+    }
+
+    /**
+     * Not supported, since every version is immutable. Use getOrDefault() with plus() or
+     * minus() instead.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public ValueType merge(KeyType key, ValueType value,
+            BiFunction<? super ValueType, ? super ValueType, ? extends ValueType> remappingFunction) {
+        throw new UnsupportedOperationException("PersistentHashMap is immutable, use getOrDefault() with plus() or minus().");
+    }
+
+    /**
+     * Calls the given action for every entry of this version, in no particular order.
+     *
+     * @param action the action applied to each key and value
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super KeyType, ? super ValueType> action) {
+        forEachLeaf(root, leaf -> action.accept((KeyType) leaf.key, (ValueType) leaf.value));
+    }
+
+    private static void forEachLeaf(Object slot, Consumer<Leaf> action) {
+        if (slot instanceof Leaf) {
+            action.accept((Leaf) slot);
+        } else if (slot instanceof CollisionNode) {
+            for (Leaf leaf : ((CollisionNode) slot).leaves) {
+                action.accept(leaf);
+            }
+        } else if (slot instanceof BitmapNode) {
+            for (Object child : ((BitmapNode) slot).slots) {
+                forEachLeaf(child, action);
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of the given node that may be edited in place under the given
+     * edit token, or the node itself if it already belongs to that token.
+     */
+    private static BitmapNode editable(BitmapNode node, Object edit) {
+        if (edit != null && node.edit == edit) {
+            return node;
+        }
+        return new BitmapNode(node.bitmap, node.slots.clone(), edit);
+    }
+
+    /**
+     * Recursive helper that stores the key within the subtree rooted at slot.
+     *
+     * @param slot the root of the subtree, a BitmapNode or CollisionNode
+     * @param shift the number of hash bits consumed above this subtree
+     * @param hash the spread hash of key
+     * @param key the key to be stored
+     * @param value the value to be stored
+     * @param edit the edit token of the builder making the change, or null
+     * @param added set to true if the key was not yet in the subtree
+     * @return the new root of the subtree, or slot itself if nothing changed
+     */
+    private static Object put(Object slot, int shift, int hash, Object key, Object value,
+                              Object edit, boolean[] added) {
+
+        if (slot instanceof CollisionNode) {
+            CollisionNode collision = (CollisionNode) slot;
+
+            if (collision.hash != hash) {
+                added[0] = true;
+                return merge(shift, collision, collision.hash, new Leaf(hash, key, value), edit);
+            }
+
+            Leaf[] leaves = collision.leaves;
+            for (int i = 0; i < leaves.length; i++) {
+                if (key.equals(leaves[i].key)) {
+                    if (leaves[i].value == value) {
+                        return collision;
+                    }
+                    Leaf[] copy = leaves.clone();
+                    copy[i] = new Leaf(hash, key, value);
+                    return new CollisionNode(hash, copy);
+                }
+            }
+
+            Leaf[] copy = Arrays.copyOf(leaves, leaves.length + 1);
+            copy[leaves.length] = new Leaf(hash, key, value);
+            added[0] = true;
+            return new CollisionNode(hash, copy);
+        }
+
+        BitmapNode node = (BitmapNode) slot;
+        int bit = bitFor(hash, shift);
+        int index = slotIndex(node.bitmap, bit);
+
+        // empty position, so the new leaf goes straight into this node
+        if ((node.bitmap & bit) == 0) {
+            Object[] slots = new Object[node.slots.length + 1];
+            System.arraycopy(node.slots, 0, slots, 0, index);
+            slots[index] = new Leaf(hash, key, value);
+            System.arraycopy(node.slots, index, slots, index + 1, node.slots.length - index);
+            added[0] = true;
+
+            BitmapNode result = editable(node, edit);
+            result.bitmap = node.bitmap | bit;
+            result.slots = slots;
+            return result;
+        }
+
+        Object child = node.slots[index];
+        Object newChild;
+
+        if (child instanceof Leaf) {
+            Leaf leaf = (Leaf) child;
+            if (leaf.hash == hash && key.equals(leaf.key)) {
+                if (leaf.value == value) {
+                    return node;
+                }
+                newChild = new Leaf(hash, key, value);
+            } else {
+                added[0] = true;
+                newChild = merge(shift + BITS, leaf, leaf.hash, new Leaf(hash, key, value), edit);
+            }
+        } else {
+            newChild = put(child, shift + BITS, hash, key, value, edit, added);
+            if (newChild == child) {
+                return node;
+            }
+        }
+
+        BitmapNode result = editable(node, edit);
+        result.slots[index] = newChild;
+        return result;
+    }
+
+    /**
+     * Builds the smallest subtree holding an existing Leaf or CollisionNode and a
+     * new leaf with a different key.
+     *
+     * @param shift the number of hash bits consumed above the new subtree
+     * @param existing the existing Leaf or CollisionNode
+     * @param existingHash the full hash of the existing slot
+     * @param leaf the new leaf
+     * @param edit the edit token of the builder making the change, or null
+     * @return the root of the new subtree
+     */
+    private static Object merge(int shift, Object existing, int existingHash, Leaf leaf, Object edit) {
+        if (existingHash == leaf.hash) {
+            if (existing instanceof Leaf) {
+                return new CollisionNode(leaf.hash, new Leaf[] { (Leaf) existing, leaf });
+            }
+            Leaf[] leaves = ((CollisionNode) existing).leaves;
+            Leaf[] copy = Arrays.copyOf(leaves, leaves.length + 1);
+            copy[leaves.length] = leaf;
+            return new CollisionNode(leaf.hash, copy);
+        }
+
+        int existingBit = bitFor(existingHash, shift);
+        int leafBit = bitFor(leaf.hash, shift);
+
+        // both still share a position, so push them one level further down
+        if (existingBit == leafBit) {
+            Object child = merge(shift + BITS, existing, existingHash, leaf, edit);
+            return new BitmapNode(existingBit, new Object[] { child }, edit);
+        }
+
+        Object[] slots = (Integer.compareUnsigned(existingBit, leafBit) < 0)
+            ? new Object[] { existing, leaf }
+            : new Object[] { leaf, existing };
+        return new BitmapNode(existingBit | leafBit, slots, edit);
+    }
+
+    /**
+     * Recursive helper that removes the key from the subtree rooted at slot. A
+     * subtree left holding a single leaf is replaced by that leaf.
+     *
+     * @param slot the root of the subtree, a BitmapNode or CollisionNode
+     * @param shift the number of hash bits consumed above this subtree
+     * @param hash the spread hash of key
+     * @param key the key to be removed
+     * @param edit the edit token of the builder making the change, or null
+     * @param removed set to true if the key was found and removed
+     * @return the new root of the subtree, null if it is now empty, or slot itself
+     *     if nothing changed
+     */
+    private static Object remove(Object slot, int shift, int hash, Object key, Object edit, boolean[] removed) {
+
+        if (slot instanceof CollisionNode) {
+            CollisionNode collision = (CollisionNode) slot;
+            Leaf[] leaves = collision.leaves;
+
+            for (int i = 0; collision.hash == hash && i < leaves.length; i++) {
+                if (key.equals(leaves[i].key)) {
+                    removed[0] = true;
+                    if (leaves.length == 2) {
+                        return leaves[1 - i];
+                    }
+                    Leaf[] copy = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, copy, 0, i);
+                    System.arraycopy(leaves, i + 1, copy, i, leaves.length - i - 1);
+                    return new CollisionNode(hash, copy);
+                }
+            }
+            return collision;
+        }
+
+        BitmapNode node = (BitmapNode) slot;
+        int bit = bitFor(hash, shift);
+        if ((node.bitmap & bit) == 0) {
+            return node;
+        }
+
+        int index = slotIndex(node.bitmap, bit);
+        Object child = node.slots[index];
+        Object newChild;
+
+        if (child instanceof Leaf) {
+            Leaf leaf = (Leaf) child;
+            if (leaf.hash != hash || !key.equals(leaf.key)) {
+                return node;
+            }
+            removed[0] = true;
+            newChild = null;
+        } else {
+            newChild = remove(child, shift + BITS, hash, key, edit, removed);
+            if (newChild == child) {
+                return node;
+            }
+        }
+
+        if (newChild != null) {
+            // a child collapsed into a single leaf may collapse this node too
+            if (newChild instanceof Leaf && node.slots.length == 1 && shift > 0) {
+                return newChild;
+            }
+            BitmapNode result = editable(node, edit);
+            result.slots[index] = newChild;
+            return result;
+        }
+
+        if (node.slots.length == 1) {
+            return null;
+        }
+
+        // the only slot left is a leaf, so it replaces this node in the parent
+        if (node.slots.length == 2 && shift > 0 && node.slots[1 - index] instanceof Leaf) {
+            return node.slots[1 - index];
+        }
+
+        Object[] slots = new Object[node.slots.length - 1];
+        System.arraycopy(node.slots, 0, slots, 0, index);
+        System.arraycopy(node.slots, index + 1, slots, index, node.slots.length - index - 1);
+
+        BitmapNode result = editable(node, edit);
+        result.bitmap = node.bitmap & ~bit;
+        result.slots = slots;
+        return result;
+    }
+
+    /**
+     * Reports every difference between the given older version and this version.
+     * Subtrees shared by the two versions are skipped without being visited.
+     *
+     * @param older the version to compare against
+     * @param listener receives each key that was added, removed or changed
+     */
+    public void diff(PersistentHashMap<KeyType, ValueType> older, DiffListener<? super KeyType, ? super ValueType> listener) {
+        diff(older.root, root, 0, listener);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <KeyType, ValueType> void diff(Object before, Object after, int shift,
+                                                  DiffListener<KeyType, ValueType> listener) {
+        if (before == after) {
+            return;
+        }
+
+        // both sides are interior nodes, so compare them position by position
+        if (before instanceof BitmapNode && after instanceof BitmapNode) {
+            BitmapNode oldNode = (BitmapNode) before;
+            BitmapNode newNode = (BitmapNode) after;
+            int positions = oldNode.bitmap | newNode.bitmap;
+
+            while (positions != 0) {
+                int bit = Integer.lowestOneBit(positions);
+                positions &= ~bit;
+                Object oldChild = ((oldNode.bitmap & bit) == 0) ? null : oldNode.slots[slotIndex(oldNode.bitmap, bit)];
+                Object newChild = ((newNode.bitmap & bit) == 0) ? null : newNode.slots[slotIndex(newNode.bitmap, bit)];
+                diff(oldChild, newChild, shift + BITS, listener);
+            }
+            return;
+        }
+
+        // otherwise look each entry of one side up in the other
+        Object oldSide = before;
+        Object newSide = after;
+        int level = shift;
+        forEachLeaf(oldSide, leaf -> {
+            Leaf match = (newSide == null) ? null : find(newSide, level, leaf.hash, leaf.key);
+            if (match == null) {
+                listener.removed((KeyType) leaf.key, (ValueType) leaf.value);
+            } else if (!Objects.equals(match.value, leaf.value)) {
+                listener.changed((KeyType) leaf.key, (ValueType) leaf.value, (ValueType) match.value);
+            }
+        });
+        forEachLeaf(newSide, leaf -> {
+            if (oldSide == null || find(oldSide, level, leaf.hash, leaf.key) == null) {
+                listener.added((KeyType) leaf.key, (ValueType) leaf.value);
+            }
+        });
+    }
+
+    /**
+     * Returns a builder that starts from this version.
+     * @return a new builder holding the entries of this version
+     */
+    public Builder<KeyType, ValueType> toBuilder() {
+        return new Builder<>(root, size);
+    }
+
+    /**
+     * A transient, single threaded form of the map for bulk loads. Nodes created by a
+     * builder carry its edit token and are changed in place by later calls. build()
+     * hands out a version and switches to a new token, so that version is never changed.
+     */
+    public static final class Builder<KeyType extends Comparable<KeyType>, ValueType> {
+
+        private BitmapNode root;
+        private int size;
+        private Object edit;
+
+        private Builder(BitmapNode root, int size) {
+            this.root = root;
+            this.size = size;
+            this.edit = new Object();
+        }
+
+        /**
+         * Maps the given key to the given value, replacing any existing value.
+         *
+         * @param key - the key for storing the value
+         * @param value - the value to be stored
+         * @return this builder
+         */
+        public Builder<KeyType, ValueType> put(KeyType key, ValueType value) {
+            boolean[] added = new boolean[1];
+            root = (BitmapNode) PersistentHashMap.put(root, 0, spread(key), key, value, edit, added);
+            if (added[0]) {
+                size++;
+            }
+            return this;
+        }
+
+        /**
+         * Removes the given key, if it is present.
+         *
+         * @param key - the key to be removed
+         * @return this builder
+         */
+        public Builder<KeyType, ValueType> remove(KeyType key) {
+            boolean[] removed = new boolean[1];
+            Object newRoot = PersistentHashMap.remove(root, 0, spread(key), key, edit, removed);
+            if (removed[0]) {
+                root = (newRoot == null) ? EMPTY_ROOT : (BitmapNode) newRoot;
+                size--;
+            }
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns an immutable version holding the entries put so far.
+         * @return the built version
+         */
+        public PersistentHashMap<KeyType, ValueType> build() {
+            edit = new Object();
+            return new PersistentHashMap<>(root, size);
+        }
+    }
+
+}
@@ -0,0 +1,429 @@
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * An open addressing implementation of a Hash Table with generic types KeyType mapped to
+ * ValueType. Keys and values are stored in parallel arrays, and collisions are resolved
+ * with Robin Hood linear probing: an entry that has travelled further from its home slot
+ * takes the place of an entry that is closer to its own home slot. This keeps probe
+ * lengths short and uniform, so a lookup usually touches only one or two adjacent slots.
+ *
+ * Removals use backward-shift deletion instead of tombstones: the entries that follow the
+ * removed entry are shifted back one slot until an empty slot or an entry already in its
+ * home slot is reached.
+ *
+ * @author Patrick Harvey
+ */
+public class RobinHoodHashMap<KeyType extends Comparable<KeyType>, ValueType> implements MapADT<KeyType, ValueType> {
+
+    private Object[] keys;
+    private Object[] values;
+    // probe distance + 1 for each slot, 0 marks an empty slot
+    private int[] distances;
+    private int size;
+    private int capacity;
+    private int mask;
+    private static final double LOAD_FACTOR = 0.8;
+
+    /**
+     * This constructor creates a new RobinHoodHashMap object with at least the
+     * specified capacity. The capacity is rounded up to a power of two so that
+     * a slot index can be computed with a mask.
+     *
+     * @param capacity - the minimum size of the map to be made
+     */
+    public RobinHoodHashMap(int capacity) {
+
+        if (capacity <= 0) {
+            throw new NumberFormatException("Cannot have a capacity <= 0.");
+        }
+
+        this.capacity = tableSizeFor(capacity);
+        this.mask = this.capacity - 1;
+        keys = new Object[this.capacity];
+        values = new Object[this.capacity];
+        distances = new int[this.capacity];
+        size = 0;
+    }
+
+    /**
+     * Default constructor that creates a RobinHoodHashMap with capacity of 16.
+     */
+    public RobinHoodHashMap() {
+        this(16);
+    }
+
+    /**
+     * Returns the size of this RobinHoodHashMap
+     * @return the size of this map
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the current number of slots in this table.
+     * @return the current capacity of this hash table
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Rounds the given capacity up to the next power of two.
+     * @param capacity - the requested capacity
+     * @return the smallest power of two >= capacity
+     */
+    private static int tableSizeFor(int capacity) {
+        int n = -1 >>> Integer.numberOfLeadingZeros(capacity - 1);
+        return (n < 0) ? 1 : (n >= (1 << 30)) ? (1 << 30) : n + 1;
+    }
+
+    /**
+     * Hashes the given key by spreading the high bits of its hashCode() into the low
+     * bits, and then masking with the current capacity of the table.
+     *
+     * @param key the key to be hashed for the table
+     * @return the home slot of the key within the table
+     */
+    private int hash(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Helper method that probes the table for the given key. A miss returns the slot
+     * where the probe stopped, encoded as ~slot, which is where the key would be inserted.
+     *
+     * @param key the key being searched for
+     * @return the slot holding the key, or a negative ~slot if the key is not in the table
+     */
+    private int findSlot(Object key) {
+        int index = hash(key);
+        int distance = 1;
+
+        // a slot whose entry is closer to home than we are ends the search
+        while (distances[index] >= distance) {
+            if (distances[index] == distance && key.equals(keys[index])) {
+                return index;
+            }
+            index = (index + 1) & mask;
+            distance++;
+        }
+        return ~index;
+    }
+
+    /**
+     * Helper method to determine if the hash table's load factor is >= 0.8
+     * by comparing (size / capacity) to LOAD_FACTOR fields.
+     * @return true if the table IS overloaded, false otherwise
+     */
+    private boolean tableIsOverloaded() {
+        return ((double) size / capacity) >= LOAD_FACTOR;
+    }
+
+    /**
+     * Doubles the capacity of the table and reinserts every entry into the
+     * new key and value arrays.
+     */
+    private void growTable() {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldDistances = distances;
+
+        capacity *= 2;
+        mask = capacity - 1;
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        distances = new int[capacity];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldDistances[i] != 0) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Places an entry known not to be in the table, swapping it with any entry
+     * that is closer to its home slot than the entry being placed.
+     *
+     * @param key - the key to be placed
+     * @param value - the value to be placed
+     */
+    private void insert(Object key, Object value) {
+        insertAt(hash(key), key, value);
+    }
+
+    /**
+     * Places an entry known not to be in the table, starting at the slot where a
+     * probe for its key stopped, as returned by findSlot().
+     *
+     * @param index - the slot where the probe for key stopped
+     * @param key - the key to be placed
+     * @param value - the value to be placed
+     */
+    private void insertAt(int index, Object key, Object value) {
+        int distance = ((index - hash(key)) & mask) + 1;
+
+        while (distances[index] != 0) {
+            // rob the richer entry of its slot and carry it forward instead
+            if (distances[index] < distance) {
+                Object tempKey = keys[index];
+                Object tempValue = values[index];
+                int tempDistance = distances[index];
+                keys[index] = key;
+                values[index] = value;
+                distances[index] = distance;
+                key = tempKey;
+                value = tempValue;
+                distance = tempDistance;
+            }
+            index = (index + 1) & mask;
+            distance++;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        distances[index] = distance;
+    }
+
+    /**
+     * Stores the key-value pair in the hash table if the key is not already present.
+     *
+     * @param key - the key for storing the item in the hash table
+     * @param value - the value to be stored in the hash table
+     * @return true if the value was put in the table, false if the key already existed
+     */
+    public boolean put(KeyType key, ValueType value) {
+        int index = findSlot(key);
+
+        if (index >= 0) {
+            return false;
+        }
+
+        add(~index, key, value);
+        return true;
+    }
+
+    /**
+     * Adds a new entry from the slot where the probe for its key stopped, and grows
+     * the table if it is now overloaded.
+     *
+     * @param index - the slot where the probe for key stopped
+     * @param key - the key to be added
+     * @param value - the value to be added
+     */
+    private void add(int index, KeyType key, ValueType value) {
+        insertAt(index, key, value);
+        size++;
+
+        //check if table is overloaded, and grow table if necessary
+        if (tableIsOverloaded()) {
+            growTable();
+        }
+    }
+
+    /**
+     * This method searches for the value for the given key through this hash table.
+     * If the key does not exist, then it throws an exception.
+     *
+     * @param key the key being searched for within the hashtable
+     * @return the value associated with key, if it exists
+     * @throws NoSuchElementException if the value does not exist within the hash table
+     */
+    @SuppressWarnings("unchecked")
+    public ValueType get(KeyType key) throws NoSuchElementException {
+        int index = findSlot(key);
+
+        if (index < 0) {
+            throw new NoSuchElementException("Key did not exist within hash table.");
+        }
+        return (ValueType) values[index];
+    }
+
+    /**
+     * Returns the value for the given key, or defaultValue if the key does not exist
+     * within the hash table. Unlike get(), a miss does not throw.
+     *
+     * @param key the key being searched for within the hashtable
+     * @param defaultValue the value returned when the key is not in the table
+     * @return the value for key, or defaultValue if there is none
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public ValueType getOrDefault(KeyType key, ValueType defaultValue) {
+        int index = findSlot(key);
+        return (index >= 0) ? (ValueType) values[index] : defaultValue;
+    }
+
+    /**
+     * Stores the value for the given key if the key does not already exist within
+     * the hash table, probing the table only once.
+     *
+     * @param key - the key for storing the item in the hash table
+     * @param value - the value to be stored in the hash table
+     * @return the value already stored for key, or null if the value was stored
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public ValueType putIfAbsent(KeyType key, ValueType value) {
+        int index = findSlot(key);
+
+        if (index >= 0) {
+            return (ValueType) values[index];
+        }
+
+        add(~index, key, value);
+        return null;
+    }
+
+    /**
+     * Returns the value for the given key, first storing the value computed by
+     * mappingFunction if the key does not exist within the hash table. A null
+     * result is not stored.
+     *
+     * @param key - the key being searched for within the hashtable
+     * @param mappingFunction - computes the value for a missing key
+     * @return the current or computed value for key, or null if none was computed
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public ValueType computeIfAbsent(KeyType key,
+            Function<? super KeyType, ? extends ValueType> mappingFunction) {
+        int index = findSlot(key);
+
+        if (index >= 0) {
+            return (ValueType) values[index];
+        }
+
+        ValueType value = mappingFunction.apply(key);
+        if (value != null) {
+            add(~index, key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Replaces the value for the given key with the result of remappingFunction, which
+     * is passed the current value, or null if the key does not exist within the table.
+     * A null result removes the key from the hash table.
+     *
+     * @param key - the key whose value is being computed
+     * @param remappingFunction - computes the new value from the key and the current value
+     * @return the new value for key, or null if the key is no longer in the table
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public ValueType compute(KeyType key,
+            BiFunction<? super KeyType, ? super ValueType, ? extends ValueType> remappingFunction) {
+        int index = findSlot(key);
+        ValueType value = remappingFunction.apply(key, (index >= 0) ? (ValueType) values[index] : null);
+
+        if (index < 0) {
+            if (value != null) {
+                add(~index, key, value);
+            }
+        } else if (value != null) {
+            values[index] = value;
+        } else {
+            removeSlot(index);
+        }
+        return value;
+    }
+
+    /**
+     * Stores the given value for the key if the key does not exist within the table.
+     * Otherwise the value is replaced by the result of remappingFunction applied to the
+     * current value and the given value. A null result removes the key from the table.
+     *
+     * @param key - the key whose value is being merged
+     * @param value - the value stored for a missing key, and merged into a present one
+     * @param remappingFunction - combines the current value with the given value
+     * @return the new value for key, or null if the key is no longer in the table
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public ValueType merge(KeyType key, ValueType value,
+            BiFunction<? super ValueType, ? super ValueType, ? extends ValueType> remappingFunction) {
+        int index = findSlot(key);
+
+        if (index < 0) {
+            add(~index, key, value);
+            return value;
+        }
+
+        ValueType newValue = remappingFunction.apply((ValueType) values[index], value);
+        if (newValue != null) {
+            values[index] = newValue;
+        } else {
+            removeSlot(index);
+        }
+        return newValue;
+    }
+
+    /**
+    * Searches through the hash table for the given key.
+    *
+    * @return true if the hash table contains the given key, false otherwise
+    */
+    public boolean containsKey(KeyType key) {
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * Removes the value associated with the give key from the hash table, and
+     * returns a reference to that value. The entries following the removed one
+     * are shifted back so that no tombstone is left behind. If the given key does
+     * not exist within the table, it returns null.
+     *
+     * @return ValueType if the key-value pair exists within, otherwise null
+     */
+    @SuppressWarnings("unchecked")
+    public ValueType remove(KeyType key) {
+        int index = findSlot(key);
+
+        if (index < 0) {
+            return null;
+        }
+
+        ValueType removee = (ValueType) values[index];
+        removeSlot(index);
+        return removee;
+    }
+
+    /**
+     * Empties the given slot, shifting the entries that follow it back one slot until
+     * an empty slot or an entry in its home slot is found.
+     *
+     * @param index - the slot of the entry being removed
+     */
+    private void removeSlot(int index) {
+        // shift following entries back until an empty or home slot is found
+        int next = (index + 1) & mask;
+        while (distances[next] > 1) {
+            keys[index] = keys[next];
+            values[index] = values[next];
+            distances[index] = distances[next] - 1;
+            index = next;
+            next = (next + 1) & mask;
+        }
+
+        keys[index] = null;
+        values[index] = null;
+        distances[index] = 0;
+        size--;
+    }
+
+    /**
+     * Clears the current hash table of all entries and resets size to 0.
+     */
+    public void clear() {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        distances = new int[capacity];
+        size = 0;
+    }
+
+}
@@ -0,0 +1,50 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestBoundedCache {
+
+    @Test
+    public void testWeightedSketchIsSizedByEntries() {
+
+        WTinyLfuPolicy<Integer, byte[]> policy = new WTinyLfuPolicy<>();
+        BoundedCache<Integer, byte[]> cache =
+            new BoundedCache<>(1L << 30, 10_000, (key, value) -> value.length, policy);
+
+        assertEquals("Error", 1L << 30, cache.getMaximumWeight());
+        assertEquals("Error", 16_384, policy.getSketch().getWidth());
+        assertEquals("Error", 163_840, policy.getSketch().getSampleSize());
+    }
+
+    @Test
+    public void testCountedSketchIsSizedByMaximumSize() {
+
+        WTinyLfuPolicy<Integer, Integer> policy = new WTinyLfuPolicy<>();
+        new BoundedCache<Integer, Integer>(1000, policy);
+
+        assertEquals("Error", 1024, policy.getSketch().getWidth());
+    }
+
+    @Test
+    public void testWeightedSketchAges() {
+
+        WTinyLfuPolicy<Integer, byte[]> policy = new WTinyLfuPolicy<>();
+        BoundedCache<Integer, byte[]> cache =
+            new BoundedCache<>(1L << 30, 1000, (key, value) -> value.length, policy);
+        FrequencySketch sketch = policy.getSketch();
+
+        cache.put(-1, new byte[1024]);
+        for (int i = 0; i < 20; i++) {
+            cache.get(-1);
+        }
+        assertEquals("A popular key should saturate its counters", 15, sketch.frequency(WTinyLfuPolicy.spread(-1)));
+
+        // enough misses on other keys to reach the sample size and halve every counter
+        for (int i = 0; i < sketch.getSampleSize(); i++) {
+            cache.getOrDefault(i, null);
+        }
+        assertTrue("A formerly popular key should fade", sketch.frequency(WTinyLfuPolicy.spread(-1)) <= 7);
+        assertEquals("Error", 1, cache.size());
+    }
+
+}
@@ -0,0 +1,275 @@
+import java.util.List;
+
+/**
+ * A bucket of the HashTableMap that keeps its HashNodes in a left leaning red black tree
+ * ordered by their keys. HashTableMap turns a chain into a TreeBucket once the chain grows
+ * past a threshold, so that even when many keys share one hash value, a lookup within the
+ * bucket costs O(log n) instead of O(n).
+ *
+ * Like Tree/RedBlackTree, each node keeps an isBlack color flag. Null children count as
+ * black. The left leaning variant is used here because it also supports removal.
+ *
+ * @author Patrick Harvey
+ */
+class TreeBucket<KeyType extends Comparable<KeyType>, ValueType> {
+
+    /**
+     * This class represents a node holding a single HashNode within the tree.
+     */
+    private static class Node<KeyType extends Comparable<KeyType>, ValueType> {
+        HashNode<KeyType, ValueType> entry;
+        Node<KeyType, ValueType> leftChild;
+        Node<KeyType, ValueType> rightChild;
+        boolean isBlack;
+
+        Node(HashNode<KeyType, ValueType> entry) {
+            this.entry = entry;
+            this.isBlack = false;
+        }
+    }
+
+    private Node<KeyType, ValueType> root;
+    private int size;
+
+    /**
+     * Returns the number of entries within this bucket.
+     * @return the size of this bucket
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Searches the tree for the entry with the given key.
+     *
+     * @param key the key being searched for
+     * @return the entry holding the key, or null if it is not in this bucket
+     */
+    public HashNode<KeyType, ValueType> find(KeyType key) {
+        Node<KeyType, ValueType> node = root;
+
+        while (node != null) {
+            int compare = key.compareTo(node.entry.getKey());
+            if (compare == 0) {
+                return node.entry;
+            }
+            node = (compare < 0) ? node.leftChild : node.rightChild;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of entries compared by a search for the given key.
+     *
+     * @param key the key being searched for
+     * @return the number of nodes on the search path of key
+     */
+    public int probesFor(KeyType key) {
+        Node<KeyType, ValueType> node = root;
+        int probes = 0;
+
+        while (node != null) {
+            probes++;
+            int compare = key.compareTo(node.entry.getKey());
+            if (compare == 0) {
+                break;
+            }
+            node = (compare < 0) ? node.leftChild : node.rightChild;
+        }
+        return probes;
+    }
+
+    /**
+     * Inserts an entry whose key is not already in this bucket.
+     *
+     * @param entry the entry to be added
+     */
+    public void insert(HashNode<KeyType, ValueType> entry) {
+        root = insertHelper(root, entry);
+        root.isBlack = true;
+        size++;
+    }
+
+    /**
+     * Recursive helper that adds the entry as a red leaf and restores the
+     * left leaning red black properties on the way back up.
+     */
+    private Node<KeyType, ValueType> insertHelper(Node<KeyType, ValueType> subtree,
+                                                  HashNode<KeyType, ValueType> entry) {
+        if (subtree == null) {
+            return new Node<>(entry);
+        }
+
+        if (entry.getKey().compareTo(subtree.entry.getKey()) < 0) {
+            subtree.leftChild = insertHelper(subtree.leftChild, entry);
+        } else {
+            subtree.rightChild = insertHelper(subtree.rightChild, entry);
+        }
+        return balance(subtree);
+    }
+
+    /**
+     * Removes the entry with the given key from this bucket.
+     *
+     * @param key the key of the entry to be removed
+     * @return the removed entry, or null if the key was not in this bucket
+     */
+    public HashNode<KeyType, ValueType> remove(KeyType key) {
+        HashNode<KeyType, ValueType> removee = find(key);
+        if (removee == null) {
+            return null;
+        }
+
+        // make the root red so that a red node can be carried down the search path
+        if (isBlack(root.leftChild) && isBlack(root.rightChild)) {
+            root.isBlack = false;
+        }
+        root = removeHelper(root, key);
+        if (root != null) {
+            root.isBlack = true;
+        }
+        size--;
+        return removee;
+    }
+
+    /**
+     * Recursive helper that removes the key, which must be within the subtree.
+     */
+    private Node<KeyType, ValueType> removeHelper(Node<KeyType, ValueType> subtree, KeyType key) {
+        if (key.compareTo(subtree.entry.getKey()) < 0) {
+            if (isBlack(subtree.leftChild) && isBlack(subtree.leftChild.leftChild)) {
+                subtree = moveRedLeft(subtree);
+            }
+            subtree.leftChild = removeHelper(subtree.leftChild, key);
+        } else {
+            if (!isBlack(subtree.leftChild)) {
+                subtree = rotateRight(subtree);
+            }
+            if (key.compareTo(subtree.entry.getKey()) == 0 && subtree.rightChild == null) {
+                return null;
+            }
+            if (isBlack(subtree.rightChild) && isBlack(subtree.rightChild.leftChild)) {
+                subtree = moveRedRight(subtree);
+            }
+            if (key.compareTo(subtree.entry.getKey()) == 0) {
+                // replace this entry with its successor, then remove the successor
+                Node<KeyType, ValueType> successor = subtree.rightChild;
+                while (successor.leftChild != null) {
+                    successor = successor.leftChild;
+                }
+                subtree.entry = successor.entry;
+                subtree.rightChild = removeMin(subtree.rightChild);
+            } else {
+                subtree.rightChild = removeHelper(subtree.rightChild, key);
+            }
+        }
+        return balance(subtree);
+    }
+
+    /**
+     * Removes the smallest node from the given subtree.
+     */
+    private Node<KeyType, ValueType> removeMin(Node<KeyType, ValueType> subtree) {
+        if (subtree.leftChild == null) {
+            return null;
+        }
+        if (isBlack(subtree.leftChild) && isBlack(subtree.leftChild.leftChild)) {
+            subtree = moveRedLeft(subtree);
+        }
+        subtree.leftChild = removeMin(subtree.leftChild);
+        return balance(subtree);
+    }
+
+    /**
+     * Adds every entry of this bucket to the given list, in key order.
+     *
+     * @param list the list receiving the entries
+     */
+    public void addAllTo(List<HashNode<KeyType, ValueType>> list) {
+        addAllHelper(root, list);
+    }
+
+    private void addAllHelper(Node<KeyType, ValueType> subtree, List<HashNode<KeyType, ValueType>> list) {
+        if (subtree != null) {
+            addAllHelper(subtree.leftChild, list);
+            list.add(subtree.entry);
+            addAllHelper(subtree.rightChild, list);
+        }
+    }
+
+    private boolean isBlack(Node<KeyType, ValueType> node) {
+        return node == null || node.isBlack;
+    }
+
+    /**
+     * Left rotation: the right child of parent becomes the parent of the subtree.
+     */
+    private Node<KeyType, ValueType> rotateLeft(Node<KeyType, ValueType> parent) {
+        Node<KeyType, ValueType> child = parent.rightChild;
+        parent.rightChild = child.leftChild;
+        child.leftChild = parent;
+        child.isBlack = parent.isBlack;
+        parent.isBlack = false;
+        return child;
+    }
+
+    /**
+     * Right rotation: the left child of parent becomes the parent of the subtree.
+     */
+    private Node<KeyType, ValueType> rotateRight(Node<KeyType, ValueType> parent) {
+        Node<KeyType, ValueType> child = parent.leftChild;
+        parent.leftChild = child.rightChild;
+        child.rightChild = parent;
+        child.isBlack = parent.isBlack;
+        parent.isBlack = false;
+        return child;
+    }
+
+    /**
+     * Flips the colors of a node and both of its children.
+     */
+    private void flipColors(Node<KeyType, ValueType> node) {
+        node.isBlack = !node.isBlack;
+        node.leftChild.isBlack = !node.leftChild.isBlack;
+        node.rightChild.isBlack = !node.rightChild.isBlack;
+    }
+
+    private Node<KeyType, ValueType> moveRedLeft(Node<KeyType, ValueType> node) {
+        flipColors(node);
+        if (!isBlack(node.rightChild.leftChild)) {
+            node.rightChild = rotateRight(node.rightChild);
+            node = rotateLeft(node);
+            flipColors(node);
+        }
+        return node;
+    }
+
+    private Node<KeyType, ValueType> moveRedRight(Node<KeyType, ValueType> node) {
+        flipColors(node);
+        if (!isBlack(node.leftChild.leftChild)) {
+            node = rotateRight(node);
+            flipColors(node);
+        }
+        return node;
+    }
+
+    /**
+     * Restores the left leaning red black properties at the given node:
+     * 1) a red right child is rotated to the left
+     * 2) two reds in a row on the left are rotated to the right
+     * 3) two red children are split by flipping colors
+     */
+    private Node<KeyType, ValueType> balance(Node<KeyType, ValueType> node) {
+        if (!isBlack(node.rightChild) && isBlack(node.leftChild)) {
+            node = rotateLeft(node);
+        }
+        if (!isBlack(node.leftChild) && !isBlack(node.leftChild.leftChild)) {
+            node = rotateRight(node);
+        }
+        if (!isBlack(node.leftChild) && !isBlack(node.rightChild)) {
+            flipColors(node);
+        }
+        return node;
+    }
+
+}
@@ -0,0 +1,138 @@
+/**
+ * A W-TinyLFU eviction policy. New entries enter a small LRU window, which holds
+ * WINDOW_PERCENT of the maximum weight. The rest of the cache is a segmented LRU
+ * main space. It has a probation segment, and a protected segment that holds up to
+ * PROTECTED_PERCENT of the main space.
+ *
+ * The FrequencySketch is sized by the expected number of entries, so a cache weighed
+ * in bytes does not allocate a counter for every byte.
+ *
+ * When the window overflows, its least recently used entry moves into the probation
+ * segment while the main space has room. Once the main space is full, that entry becomes
+ * a candidate and is admitted only if a FrequencySketch estimates it is used more often
+ * than the main space's victim. Whichever of the two loses is evicted. One-off keys
+ * therefore cannot flush frequently used entries out of the cache.
+ *
+ * @author Patrick Harvey
+ */
+public class WTinyLfuPolicy<KeyType, ValueType> implements EvictionPolicy<KeyType, ValueType> {
+
+    private static final double WINDOW_PERCENT = 0.01;
+    private static final double PROTECTED_PERCENT = 0.8;
+
+    private final AccessOrderList<KeyType, ValueType> window = new AccessOrderList<>();
+    private final AccessOrderList<KeyType, ValueType> probation = new AccessOrderList<>();
+    private final AccessOrderList<KeyType, ValueType> protectedSegment = new AccessOrderList<>();
+    private FrequencySketch sketch;
+    private long windowMaximum;
+    private long mainMaximum;
+    private long protectedMaximum;
+
+    @Override
+    public void setMaximumWeight(long maximumWeight, int expectedSize) {
+        windowMaximum = Math.max(1, (long) (maximumWeight * WINDOW_PERCENT));
+        mainMaximum = maximumWeight - windowMaximum;
+        protectedMaximum = (long) (mainMaximum * PROTECTED_PERCENT);
+        sketch = new FrequencySketch(expectedSize);
+    }
+
+    /**
+     * Returns the sketch estimating key frequencies, once setMaximumWeight() has been called.
+     * @return the frequency sketch of this policy
+     */
+    FrequencySketch getSketch() {
+        return sketch;
+    }
+
+    /**
+     * Spreads the high bits of the key's hashCode() into the low bits.
+     */
+    static int spread(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public void recordInsert(CacheEntry<KeyType, ValueType> entry) {
+        sketch.increment(spread(entry.getKey()));
+        window.addLast(entry);
+    }
+
+    @Override
+    public void recordAccess(CacheEntry<KeyType, ValueType> entry) {
+        sketch.increment(spread(entry.getKey()));
+
+        if (entry.list == probation) {
+            // a second hit promotes the entry, demoting protected entries if needed
+            probation.remove(entry);
+            protectedSegment.addLast(entry);
+            while (protectedSegment.weight() > protectedMaximum && protectedSegment.peekFirst() != entry) {
+                CacheEntry<KeyType, ValueType> demoted = protectedSegment.peekFirst();
+                protectedSegment.remove(demoted);
+                probation.addLast(demoted);
+            }
+        } else {
+            entry.list.moveToLast(entry);
+        }
+    }
+
+    @Override
+    public void recordMiss(KeyType key) {
+        sketch.increment(spread(key));
+    }
+
+    @Override
+    public void recordRemove(CacheEntry<KeyType, ValueType> entry) {
+        entry.list.remove(entry);
+    }
+
+    @Override
+    public CacheEntry<KeyType, ValueType> selectVictim() {
+
+        // the window is over its share, so its oldest entries move into the main space
+        while (window.weight() > windowMaximum) {
+            CacheEntry<KeyType, ValueType> candidate = window.peekFirst();
+            window.remove(candidate);
+
+            if (probation.weight() + protectedSegment.weight() + candidate.getWeight() <= mainMaximum) {
+                probation.addLast(candidate);
+                continue;
+            }
+
+            // the main space is full, so admit the candidate only if it is used more often than the victim
+            CacheEntry<KeyType, ValueType> victim = mainVictim();
+            if (victim != null
+                    && sketch.frequency(spread(candidate.getKey())) > sketch.frequency(spread(victim.getKey()))) {
+                victim.list.remove(victim);
+                probation.addLast(candidate);
+                return victim;
+            }
+            return candidate;
+        }
+
+        CacheEntry<KeyType, ValueType> victim = mainVictim();
+        if (victim == null) {
+            victim = window.peekFirst();
+        }
+        if (victim != null) {
+            victim.list.remove(victim);
+        }
+        return victim;
+    }
+
+    /**
+     * Returns the entry the main space would evict, preferring probation over protected.
+     */
+    private CacheEntry<KeyType, ValueType> mainVictim() {
+        return probation.isEmpty() ? protectedSegment.peekFirst() : probation.peekFirst();
+    }
+
+    @Override
+    public void clear() {
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+        sketch.clear();
+    }
+
+}
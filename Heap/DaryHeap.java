@@ -0,0 +1,200 @@
+package DataStructures.PriorityQueueAndHeaps;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+//***Key Application: A Heap with d children per node, which is shallower than a binary heap
+//and touches fewer cache lines per sift-down on large heaps
+//
+//Layout: node i has the d children d*i+1 .. d*i+d, which sit next to each other in the
+//array, so finding the best child reads one contiguous group instead of one node at each
+//of log2(n) levels. A 4-ary or 8-ary heap is half or a third as deep as a binary heap;
+//sift-down compares more children per level, but they are usually in the same cache line.
+//
+//Aligned layout: the root is stored at index d - 1 instead of 0, so every group of
+//children starts at an index that is a multiple of d. With 4 byte (compressed) references
+//and d = 8 or 16, a group then fills a 32 or 64 byte block of the array's data, rather than
+//straddling two. The JVM aligns the array object itself to only 8 bytes, so this is a
+//best effort.
+//
+//Ordering and capacity are as in Heap: the best node is the greatest by the comparator
+//(natural order by default, i.e. a max heap), and the array doubles when full and halves
+//when a quarter full, but never below its initial capacity.
+//
+public class DaryHeap<T extends Comparable<T>> implements PriorityQueueADT<T> {
+
+  private Object[] heap;
+  private int size;
+  private final int arity;
+  private final int shift; //log2(arity), so that index arithmetic needs no division
+  private final int offset; //the index of the root: 0, or arity - 1 for the aligned layout
+  private final int minCapacity;
+  private final Comparator<? super T> comparator;
+
+  /**
+   * Creates a max heap of the given arity.
+   *
+   * @param arity    - the number of children per node, a power of two of at least 2
+   * @param capacity - the initial capacity, below which the heap never shrinks
+   */
+  public DaryHeap(int arity, int capacity) {
+    this(arity, capacity, false, Comparator.naturalOrder());
+  }
+
+  /**
+   * @param arity      - the number of children per node, a power of two of at least 2
+   * @param capacity   - the initial capacity, below which the heap never shrinks
+   * @param aligned    - true to start every group of children at a multiple of arity
+   * @param comparator - the ordering of the heap, whose greatest node is the best
+   */
+  public DaryHeap(int arity, int capacity, boolean aligned, Comparator<? super T> comparator) {
+    if (arity < 2 || Integer.bitCount(arity) != 1) {
+      throw new IllegalArgumentException("Arity must be a power of two of at least 2.");
+    }
+    this.arity = arity;
+    this.shift = Integer.numberOfTrailingZeros(arity);
+    this.offset = aligned ? arity - 1 : 0;
+    this.minCapacity = Math.max(1, capacity);
+    this.heap = new Object[offset + minCapacity];
+    this.comparator = comparator;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int getArity() {
+    return arity;
+  }
+
+  /**
+   * Inserts a node, moving lower priority parents down into the hole until the
+   * node's position is found.
+   *
+   * @param newData - the node to insert
+   */
+  @SuppressWarnings("unchecked") @Override public void insert(T newData) {
+    if (offset + size == heap.length) {
+      heap = Arrays.copyOf(heap, offset + size * 2);
+    }
+
+    int index = size++;
+    while (index > 0) {
+      int parentIndex = (index - 1) >>> shift;
+      T parent = (T) heap[offset + parentIndex];
+      if (comparator.compare(newData, parent) <= 0) {
+        break;
+      }
+      heap[offset + index] = parent;
+      index = parentIndex;
+    }
+    heap[offset + index] = newData;
+  }
+
+  /**
+   * Removes the node of highest priority from this heap, moving the final node into
+   * the hole at the root and sifting it down.
+   *
+   * @return reference to highest priority node of heap
+   * @throws NoSuchElementException if the heap is empty
+   */
+  @SuppressWarnings("unchecked") @Override public T removeBest() throws NoSuchElementException {
+    if (isEmpty())
+      throw new NoSuchElementException("Empty heap!");
+
+    T removed = (T) heap[offset];
+    size--;
+    T last = (T) heap[offset + size];
+    heap[offset + size] = null;
+    if (size > 0) {
+      percolateDown(last);
+    }
+
+    //shrink when a quarter full, so that growing again right away is never needed
+    int capacity = heap.length - offset;
+    if (size < capacity / 4 && capacity / 2 >= minCapacity) {
+      heap = Arrays.copyOf(heap, offset + capacity / 2);
+    }
+    return removed;
+  }
+
+  /**
+   * Moves the best child of the hole up until the node can be placed in the hole,
+   * starting from the root.
+   */
+  @SuppressWarnings("unchecked") private void percolateDown(T node) {
+    int index = 0;
+    int firstLeaf = (size + arity - 2) >>> shift; //nodes from here on have no children
+
+    while (index < firstLeaf) {
+      int firstChild = (index << shift) + 1;
+      int bestIndex = (firstChild + arity <= size)
+          ? bestOfGroup(offset + firstChild) - offset
+          : bestOfPartialGroup(offset + firstChild, offset + size) - offset;
+      T best = (T) heap[offset + bestIndex];
+
+      if (comparator.compare(node, best) >= 0) {
+        break;
+      }
+      heap[offset + index] = best;
+      index = bestIndex;
+    }
+    heap[offset + index] = node;
+  }
+
+  /**
+   * Finds the highest priority of the arity nodes starting at the given array index.
+   * The nodes are compared in a tournament (pairs, then the winners of pairs of pairs)
+   * rather than in one running scan, so that the comparisons of a level do not depend
+   * on each other and their memory loads can overlap.
+   *
+   * @param first - the array index of the first child of the group
+   * @return the array index of the highest priority child
+   */
+  private int bestOfGroup(int first) {
+    if (arity == 2) {
+      return better(first, first + 1);
+    }
+    int best = bestOfFour(first);
+    for (int quad = first + 4; quad < first + arity; quad += 4) {
+      best = better(best, bestOfFour(quad));
+    }
+    return best;
+  }
+
+  private int bestOfFour(int first) {
+    return better(better(first, first + 1), better(first + 2, first + 3));
+  }
+
+  /**
+   * Scans the last group of children, which is not full.
+   */
+  private int bestOfPartialGroup(int first, int end) {
+    int best = first;
+    for (int child = first + 1; child < end; child++) {
+      best = better(best, child);
+    }
+    return best;
+  }
+
+  /**
+   * @return whichever of the two array indices holds the higher priority node
+   */
+  @SuppressWarnings("unchecked") private int better(int one, int two) {
+    return (comparator.compare((T) heap[one], (T) heap[two]) < 0) ? two : one;
+  }
+
+  @SuppressWarnings("unchecked") @Override public T peekBest() {
+    return (size == 0) ? null : (T) heap[offset];
+  }
+
+  @Override public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override public String toString() {
+    return Arrays.toString(Arrays.copyOfRange(heap, offset, offset + size));
+  }
+
+}
@@ -0,0 +1,129 @@
+package DataStructures.PriorityQueueAndHeaps;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares Heap with DaryHeap of arity 2, 4 and 8 (plain and aligned layouts) on heaps
+ * of growing size, from a few thousand nodes, which fit in the L1 cache, up to the given
+ * maximum size (100 million by default). Sizes whose nodes would not fit in the JVM's
+ * heap are skipped, so run with a large -Xmx for the biggest sizes.
+ *
+ * For each size the heap is filled with random Integers and then held at that size
+ * while OPERATIONS pairs of removeBest() and insert() are made; the time per pair is
+ * reported.
+ *
+ * Each configuration runs in its own JVM (started with the same JVM options), so that
+ * the JIT compiles each one without the profile of the others.
+ *
+ * Run with: java -Xmx16g DataStructures.PriorityQueueAndHeaps.DaryHeapBenchmark [max size [configuration]]
+ * where configuration is one of Heap, 2, 2a, 4, 4a, 8, 8a (a = aligned layout).
+ *
+ * @author Patrick Harvey
+ */
+public class DaryHeapBenchmark {
+
+  private static final int OPERATIONS = 1_000_000;
+  private static final int ROUNDS = 3;
+
+  private static final String[] CONFIGURATIONS = { "Heap", "2", "2a", "4", "4a", "8", "8a" };
+
+  // from L1 resident (16 KB of references) to 100 million nodes
+  private static final long[] SIZES = { 4_096, 32_768, 262_144, 2_097_152, 16_777_216, 100_000_000 };
+
+  // bytes per item: an Integer object and a reference in the items array
+  private static final long BYTES_PER_NODE = 16 + 4;
+
+  /**
+   * Creates an empty queue of the given configuration.
+   */
+  private static PriorityQueueADT<Integer> create(String configuration, int capacity) {
+    if (configuration.equals("Heap")) {
+      return new Heap<>(capacity);
+    }
+    boolean aligned = configuration.endsWith("a");
+    int arity = Integer.parseInt(aligned ? configuration.substring(0, configuration.length() - 1) : configuration);
+    return new DaryHeap<Integer>(arity, capacity, aligned, Comparator.naturalOrder());
+  }
+
+  /**
+   * Fills the queue, then times the best of ROUNDS runs of OPERATIONS remove/insert pairs.
+   *
+   * @param queue - an empty queue
+   * @param items - the items to fill the queue with, followed by the items to insert
+   * @param size  - the number of items to fill the queue with
+   * @return the best time per remove/insert pair, in nanoseconds
+   */
+  private static double measure(PriorityQueueADT<Integer> queue, Integer[] items, int size) {
+    for (int i = 0; i < size; i++) {
+      queue.insert(items[i]);
+    }
+
+    long best = Long.MAX_VALUE;
+    long checksum = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < OPERATIONS; i++) {
+        checksum += queue.removeBest();
+        queue.insert(items[size + i]);
+      }
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    if (checksum == 42) {
+      System.out.println();
+    }
+    return (double) best / OPERATIONS;
+  }
+
+  /**
+   * Measures one configuration at every size up to maxSize.
+   */
+  private static void run(String configuration, long maxSize) {
+    Random random = new Random(42);
+
+    for (long size : SIZES) {
+      if (size > maxSize) {
+        break;
+      }
+      long needed = (size + OPERATIONS) * BYTES_PER_NODE + size * 4 * 2; //items and two heap arrays
+      if (needed > Runtime.getRuntime().maxMemory()) {
+        System.out.printf("%-6s size %,13d   skipped: needs about %,d MB of heap%n", configuration, size, needed >> 20);
+        continue;
+      }
+
+      Integer[] items = new Integer[(int) size + OPERATIONS];
+      for (int i = 0; i < items.length; i++) {
+        items[i] = random.nextInt();
+      }
+      double nanos = measure(create(configuration, (int) size), items, (int) size);
+      System.out.printf("%-6s size %,13d   %8.1f ns/op%n", configuration, size, nanos);
+    }
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    long maxSize = (args.length > 0) ? Long.parseLong(args[0]) : 100_000_000L;
+
+    if (args.length > 1) {
+      run(args[1], maxSize);
+      return;
+    }
+
+    //start a JVM with the same options for each configuration
+    for (String configuration : CONFIGURATIONS) {
+      List<String> command = new ArrayList<>();
+      command.add(ProcessHandle.current().info().command().orElse("java"));
+      command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+      command.add("-cp");
+      command.add(System.getProperty("java.class.path"));
+      command.add(DaryHeapBenchmark.class.getName());
+      command.add(Long.toString(maxSize));
+      command.add(configuration);
+      new ProcessBuilder(command).inheritIO().start().waitFor();
+    }
+  }
+
+}
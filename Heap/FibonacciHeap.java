@@ -0,0 +1,363 @@
+package DataStructures.PriorityQueueAndHeaps;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+//***Key Application: A meldable priority queue with amortized O(1) insert, meld and
+//priority raise, e.g. for Dijkstra's and Prim's algorithms on dense graphs
+//
+//Structure: a circular, doubly linked list of root trees, with a pointer to the best root.
+//Every node has a higher priority than its children, and keeps its degree (number of
+//children) and a mark that records whether it has lost a child since it became a child.
+//
+//Operations:
+//    1. insert, meld -- add the node to, or splice in, the root list -- O(1)
+//    2. removeBest    -- move the best root's children to the root list, then consolidate:
+//                       link roots of equal degree until all degrees differ -- O(log n) amortized
+//    3. decreaseKey / increaseKey -- a node whose priority rises above its parent's is cut
+//                       to the root list; a marked parent is cut too (cascading cut), which
+//                       keeps every tree of degree k at least Fibonacci(k + 2) nodes large
+//                       -- O(1) amortized; a node whose priority falls is removed and
+//                       inserted again -- O(log n) amortized
+//
+//Ordering: as in Heap, the best item is the greatest by the comparator (natural order by
+//default, i.e. a max heap). decreaseKey() and increaseKey() refer to the natural order of
+//the items, so in a min heap (Comparator.reverseOrder()) decreaseKey() raises the priority.
+//
+public class FibonacciHeap<T extends Comparable<T>> implements PriorityQueueADT<T> {
+
+  /**
+   * A node of the heap, returned by insertWithHandle() as the handle of its item.
+   */
+  public static final class Node<T> {
+    private T item;
+    private Node<T> parent;
+    private Node<T> child;
+    private Node<T> left;
+    private Node<T> right;
+    private int degree;
+    private boolean marked;
+
+    private Node(T item) {
+      this.item = item;
+      this.left = this;
+      this.right = this;
+    }
+
+    public T getItem() {
+      return item;
+    }
+  }
+
+  private Node<T> best;
+  private int size;
+  private final Comparator<? super T> comparator;
+
+  //roots by degree during consolidation, kept between calls
+  @SuppressWarnings({"unchecked", "rawtypes"}) private Node<T>[] degreeTable = new Node[16];
+
+  public FibonacciHeap() {
+    this(Comparator.naturalOrder());
+  }
+
+  /**
+   * @param comparator - the ordering of the heap, whose greatest item is the best
+   */
+  public FibonacciHeap(Comparator<? super T> comparator) {
+    this.comparator = comparator;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  @Override public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override public void insert(T newData) {
+    insertWithHandle(newData);
+  }
+
+  /**
+   * Inserts an item and returns its handle, which can later be passed to
+   * decreaseKey(), increaseKey() and remove().
+   *
+   * @param newData - the item to insert
+   * @return the handle of the item
+   */
+  public Node<T> insertWithHandle(T newData) {
+    Node<T> node = new Node<>(newData);
+    addRoot(node);
+    size++;
+    return node;
+  }
+
+  @Override public T peekBest() {
+    return (best == null) ? null : best.item;
+  }
+
+  @Override public T removeBest() throws NoSuchElementException {
+    if (isEmpty())
+      throw new NoSuchElementException("Empty heap!");
+
+    Node<T> removed = best;
+
+    //move the children of the best root to the root list
+    Node<T> child = removed.child;
+    for (int i = 0; i < removed.degree; i++) {
+      Node<T> next = child.right;
+      child.parent = null;
+      child.marked = false;
+      child.left = child;
+      child.right = child;
+      splice(removed, child);
+      child = next;
+    }
+    removed.child = null;
+    removed.degree = 0;
+
+    //unlink the best root, then consolidate the remaining roots
+    if (removed.right == removed) {
+      best = null;
+    } else {
+      best = removed.right;
+      unlink(removed);
+      consolidate();
+    }
+    size--;
+    return removed.item;
+  }
+
+  /**
+   * Moves every item of the other heap into this one in O(1). The other heap is left
+   * empty, and the handles of its items now belong to this heap.
+   *
+   * @param other - a heap with the same comparator
+   * @throws IllegalArgumentException if the heaps have different comparators
+   */
+  public void meld(FibonacciHeap<T> other) {
+    if (!comparator.equals(other.comparator)) {
+      throw new IllegalArgumentException("Only heaps with the same comparator can be melded.");
+    }
+    if (other == this || other.best == null) {
+      return;
+    }
+    if (best == null) {
+      best = other.best;
+    } else {
+      splice(best, other.best);
+      if (comparator.compare(other.best.item, best.item) > 0) {
+        best = other.best;
+      }
+    }
+    size += other.size;
+    other.best = null;
+    other.size = 0;
+  }
+
+  /**
+   * Lowers the item of a node, in the natural order of the items.
+   *
+   * @param node    - the handle of an item in this heap
+   * @param newItem - an item no greater than the current item
+   * @throws IllegalArgumentException if the new item is greater than the current one
+   */
+  public void decreaseKey(Node<T> node, T newItem) {
+    if (newItem.compareTo(node.item) > 0) {
+      throw new IllegalArgumentException("New item " + newItem + " is greater than " + node.item + ".");
+    }
+    changePriority(node, newItem);
+  }
+
+  /**
+   * Raises the item of a node, in the natural order of the items.
+   *
+   * @param node    - the handle of an item in this heap
+   * @param newItem - an item no less than the current item
+   * @throws IllegalArgumentException if the new item is less than the current one
+   */
+  public void increaseKey(Node<T> node, T newItem) {
+    if (newItem.compareTo(node.item) < 0) {
+      throw new IllegalArgumentException("New item " + newItem + " is less than " + node.item + ".");
+    }
+    changePriority(node, newItem);
+  }
+
+  /**
+   * Replaces the item of a node, moving the node within the heap as needed.
+   *
+   * @param node    - the handle of an item in this heap
+   * @param newItem - the new item
+   */
+  public void changePriority(Node<T> node, T newItem) {
+    if (comparator.compare(newItem, node.item) >= 0) {
+      node.item = newItem;
+      Node<T> parent = node.parent;
+      if (parent != null && comparator.compare(node.item, parent.item) > 0) {
+        cut(node);
+        cascadingCut(parent);
+      }
+      if (comparator.compare(node.item, best.item) > 0) {
+        best = node;
+      }
+    } else {
+      remove(node);
+      node.item = newItem;
+      addRoot(node);
+      size++;
+    }
+  }
+
+  /**
+   * Removes the item of a node from this heap, by cutting it to the root list and
+   * removing it as if it were the best root.
+   *
+   * @param node - the handle of an item in this heap
+   * @return the removed item
+   */
+  public T remove(Node<T> node) {
+    Node<T> parent = node.parent;
+    if (parent != null) {
+      cut(node);
+      cascadingCut(parent);
+    }
+    best = node;
+    return removeBest();
+  }
+
+  /**
+   * Adds a single node to the root list, updating the best root.
+   */
+  private void addRoot(Node<T> node) {
+    if (best == null) {
+      best = node;
+    } else {
+      splice(best, node);
+      if (comparator.compare(node.item, best.item) > 0) {
+        best = node;
+      }
+    }
+  }
+
+  /**
+   * Joins the circular list holding b into the circular list holding a, after a.
+   */
+  private static <T> void splice(Node<T> a, Node<T> b) {
+    Node<T> aRight = a.right;
+    Node<T> bLeft = b.left;
+    a.right = b;
+    b.left = a;
+    bLeft.right = aRight;
+    aRight.left = bLeft;
+  }
+
+  /**
+   * Removes a node from its circular list, leaving it in a list of its own.
+   */
+  private static <T> void unlink(Node<T> node) {
+    node.left.right = node.right;
+    node.right.left = node.left;
+    node.left = node;
+    node.right = node;
+  }
+
+  /**
+   * Moves a child node to the root list.
+   */
+  private void cut(Node<T> node) {
+    Node<T> parent = node.parent;
+    if (parent.child == node) {
+      parent.child = (node.right == node) ? null : node.right;
+    }
+    unlink(node);
+    parent.degree--;
+    node.parent = null;
+    node.marked = false;
+    splice(best, node);
+  }
+
+  /**
+   * Cuts marked ancestors to the root list, and marks the first unmarked one.
+   */
+  private void cascadingCut(Node<T> node) {
+    while (node.parent != null) {
+      if (!node.marked) {
+        node.marked = true;
+        return;
+      }
+      Node<T> parent = node.parent;
+      cut(node);
+      node = parent;
+    }
+  }
+
+  /**
+   * Links roots of equal degree until every root has a different degree, and finds
+   * the new best root.
+   */
+  private void consolidate() {
+    int maxDegree = 2 + (int) (Math.log(size) / Math.log(1.618));
+    if (maxDegree >= degreeTable.length) {
+      degreeTable = Arrays.copyOf(degreeTable, maxDegree * 2);
+    }
+
+    //break the root list open so that it can be walked while roots are linked
+    Node<T> current = best;
+    current.left.right = null;
+
+    while (current != null) {
+      Node<T> next = current.right;
+      current.left = current;
+      current.right = current;
+
+      Node<T> root = current;
+      while (degreeTable[root.degree] != null) {
+        Node<T> other = degreeTable[root.degree];
+        degreeTable[root.degree] = null;
+        if (comparator.compare(other.item, root.item) > 0) {
+          Node<T> temp = root;
+          root = other;
+          other = temp;
+        }
+        //make other a child of root
+        other.parent = root;
+        other.marked = false;
+        if (root.child == null) {
+          root.child = other;
+        } else {
+          splice(root.child, other);
+        }
+        root.degree++;
+        if (root.degree == degreeTable.length) {
+          degreeTable = Arrays.copyOf(degreeTable, degreeTable.length * 2);
+        }
+      }
+      degreeTable[root.degree] = root;
+      current = next;
+    }
+
+    //rebuild the root list from the table
+    best = null;
+    for (int i = 0; i < degreeTable.length; i++) {
+      if (degreeTable[i] != null) {
+        Node<T> root = degreeTable[i];
+        degreeTable[i] = null;
+        if (best == null) {
+          best = root;
+        } else {
+          splice(best, root);
+          if (comparator.compare(root.item, best.item) > 0) {
+            best = root;
+          }
+        }
+      }
+    }
+  }
+
+  @Override public String toString() {
+    return "FibonacciHeap[size=" + size + ", best=" + peekBest() + "]";
+  }
+
+}
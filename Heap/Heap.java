@@ -2,6 +2,8 @@ package DataStructures.PriorityQueueAndHeaps;
 
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.NoSuchElementException;
 
 //***Key Application: Implements a Priority Queue with O(log n) time complexity insert/remove
@@ -27,6 +29,13 @@ import java.util.NoSuchElementException;
 //    2. Remove  -- O(log n)
 //    3. Heapify -- O(n) (with bubbleDown() adjustment)
 //
+//Ordering: the "best" node is the greatest according to the heap's comparator. The
+//default comparator is the natural order, which gives a max heap; Comparator.reverseOrder()
+//gives a min heap (see maxHeap() and minHeap()).
+//
+//Capacity: the array doubles when full, and halves when it is less than a quarter used,
+//but never below the capacity the heap was created with.
+//
 public class Heap<T extends Comparable<T>> implements PriorityQueueADT<T> {
 
   //heap storage within an array
@@ -38,19 +47,64 @@ public class Heap<T extends Comparable<T>> implements PriorityQueueADT<T> {
   public Object[] heap;
   private int size;
   private int capacity;
+  private final int minCapacity;
+  private final Comparator<? super T> comparator;
 
   /**
    * @param capacity
    */
   public Heap(int capacity) {
-    this.capacity = capacity;
-    this.heap = new Object[capacity];
+    this(capacity, Comparator.naturalOrder());
+  }
+
+  /**
+   * @param capacity   - the initial capacity, below which the heap never shrinks
+   * @param comparator - the ordering of the heap, whose greatest node is the best
+   */
+  public Heap(int capacity, Comparator<? super T> comparator) {
+    this.capacity = Math.max(1, capacity);
+    this.minCapacity = this.capacity;
+    this.heap = new Object[this.capacity];
+    this.comparator = comparator;
   }
 
   public Heap(T[] array) {
+    this(array, Comparator.naturalOrder());
+  }
+
+  /**
+   * Uses the given array as the heap storage, without copying it. The array is not
+   * heapified until heapify() is called, and is never shrunk.
+   *
+   * @param array      - the nodes of the heap
+   * @param comparator - the ordering of the heap, whose greatest node is the best
+   */
+  public Heap(T[] array, Comparator<? super T> comparator) {
     this.heap = array;
     this.capacity = array.length;
+    this.minCapacity = array.length;
     this.size = array.length;
+    this.comparator = comparator;
+  }
+
+  /**
+   * @param capacity - the initial capacity of the heap
+   * @return a heap whose best node is its largest, by natural order
+   */
+  public static <T extends Comparable<T>> Heap<T> maxHeap(int capacity) {
+    return new Heap<>(capacity, Comparator.<T>naturalOrder());
+  }
+
+  /**
+   * @param capacity - the initial capacity of the heap
+   * @return a heap whose best node is its smallest, by natural order
+   */
+  public static <T extends Comparable<T>> Heap<T> minHeap(int capacity) {
+    return new Heap<>(capacity, Comparator.<T>reverseOrder());
+  }
+
+  public Comparator<? super T> comparator() {
+    return comparator;
   }
 
   public int size() {
@@ -61,64 +115,54 @@ public class Heap<T extends Comparable<T>> implements PriorityQueueADT<T> {
   /**
    * 1. Add new node at heap[size]
    * <p>
-   * 2. (percolate / bubble) -- swap lower nodes with higher until proper order is achieved
-   * a. compare node to parent
-   * i.   if node is lower priority, finish (base)
-   * ii.  else swap node with parent (recurse)
+   * 2. (percolate / bubble) -- move lower priority parents down into the hole until
+   * the new node's position is found
+   * a. compare node to parent of the hole
+   * i.   if node is lower priority, finish
+   * ii.  else move parent down into the hole and repeat from the parent's position
    *
    * @param newData
    */
-  @SuppressWarnings("unchecked") @Override public void insert(T newData) {
-    //TODO needs exception for increasing array size
-
-    //first step, add at end of array (for empty array)
-    if (size == 0) {
-      heap[size++] = newData;
-    } else {
-      heap[size] = newData;
-
-      //check if the the new node has higher priority than parent node
-      if (((T) heap[size]).compareTo((T) heap[(size - 1) / 2]) > 0) {
-
-        //sets initial indices for heap
-        int fromIndex = size;
-        int toIndex = (size - 1) / 2;
-
-        //percolates the node to appropriate position
-        percolateUp(fromIndex, toIndex);
-
-      }
-      size++;
+  @Override public void insert(T newData) {
+    if (size == capacity) {
+      resize(capacity * 2);
     }
+
+    //the hole starts at the end of the array
+    percolateUp(size, newData);
+    size++;
   }
 
   /**
    * Used within the insert method to move higher priority elements higher within the heap.
+   * Instead of swapping, each lower priority parent is moved down into the hole once,
+   * and the node is written a single time at its final position.
    *
-   * @param fromIndex - the position of the item lower in heap
-   * @param toIndex   - the position of the item higher in heap
+   * @param index - the position of the hole, at the bottom of the heap
+   * @param node  - the node being placed
    */
-  @SuppressWarnings("unchecked") private void percolateUp(int fromIndex, int toIndex) {
-
-    //recursively swap child with parent until heap is properly ordered
-    if (((T) heap[fromIndex]).compareTo((T) heap[toIndex]) > 0) {
-      T val = (T) heap[toIndex];
-      heap[toIndex] = heap[fromIndex];
-      heap[fromIndex] = val;
+  @SuppressWarnings("unchecked") private void percolateUp(int index, T node) {
 
-      //recursive call with parent and parent's parent
-      percolateUp(toIndex, (toIndex - 1) / 2);
+    while (index > 0) {
+      int parentIndex = getParentIndex(index);
+      T parent = (T) heap[parentIndex];
+      if (comparator.compare(node, parent) <= 0) {
+        break;
+      }
+      heap[index] = parent;
+      index = parentIndex;
     }
+    heap[index] = node;
   }
 
   /**
    * Removes the item of highest priority from this heap.
    * Algorithm:
    * 1. replace root with heap[size - 1]
-   * 2. percolate down until properly ordered
-   * - compare index to both children
-   * - swap highest priority child (if the parent is lower priority)
-   * - recurse of child index
+   * 2. percolate down from the root until properly ordered -- O(log n)
+   * - compare the final element to both children of the hole
+   * - move the highest priority child up (if it is higher priority than the final element)
+   * - repeat from the child's position
    *
    * @return reference to highest priority node of heap
    */
@@ -129,77 +173,112 @@ public class Heap<T extends Comparable<T>> implements PriorityQueueADT<T> {
 
     T removed = (T) heap[0];
 
-    //swaps root with final element of heap
-    heap[0] = heap[size - 1];
-    heap[size - 1] = null;
+    //moves the final element of heap into the hole left at the root
     size--;
+    T last = (T) heap[size];
+    heap[size] = null;
+    if (size > 0) {
+      percolateDown(0, last);
+    }
 
-    //re-heapify the array after removing matches
-    heapify();
+    //shrink when a quarter full, so that growing again right away is never needed
+    if (size < capacity / 4 && capacity / 2 >= minCapacity) {
+      resize(capacity / 2);
+    }
 
     return removed;
   }
 
   /**
-   * Helper method for remove
+   * Removes the item of highest priority and inserts newData in its place, with a
+   * single percolate down from the root. Cheaper than removeBest() followed by insert().
+   *
+   * @param newData - the item to insert
+   * @return reference to the highest priority node that was removed
+   * @throws NoSuchElementException if the heap is empty
    */
-  @SuppressWarnings("unchecked") private void percolateDown(int index) {
-
-    int higherPriorityChildIndex;
-    int leftChildIndex = getLeftChild(index);
-    int rightChildIndex = getRightChild(index);
-
-    //base case - either of the children are outside of the size of heap
-    if (rightChildIndex >= size) {
-      //both children are greater than size
-      if (leftChildIndex >= size ) {
-        return;
-        //the left is default highest priority child
-      } else {
-        higherPriorityChildIndex = leftChildIndex;
-      }
-    }
+  @SuppressWarnings("unchecked") public T replaceBest(T newData) throws NoSuchElementException {
 
-    //if left and right are null, then stop percolating down
-    else if (heap[getLeftChild(index)] == null && heap[getRightChild(index)] == null) {
-      return;
-    }
+    if (isEmpty())
+      throw new NoSuchElementException("Empty heap!");
+
+    T removed = (T) heap[0];
+    percolateDown(0, newData);
+    return removed;
+  }
 
-    //left child has higher priority since no right child exists
-    else if (heap[getLeftChild(index)] != null && heap[getRightChild(index)] == null) {
-      higherPriorityChildIndex = getLeftChild(index);
+  /**
+   * Inserts every item of the batch. A batch at least as large as the heap is appended
+   * and the whole array is rebuilt with heapify() (Floyd's method), which takes O(n + k)
+   * time instead of the O(k log(n + k)) of k separate inserts.
+   *
+   * @param items - the items to insert
+   */
+  @SuppressWarnings("unchecked") public void insertAll(Collection<? extends T> items) {
+    int batch = items.size();
+    if (size + batch > capacity) {
+      resize(Math.max(size + batch, capacity * 2));
     }
 
-    //both children exist
-    else {
-      //find higher priority child
-      if ( ((T) heap[ getLeftChild(index) ]).compareTo((T) heap[getRightChild(index)]) < 0) {
-        higherPriorityChildIndex = getRightChild(index);
-      } else {
-        higherPriorityChildIndex = getLeftChild(index);
+    if (batch < size) {
+      for (T item : items) {
+        insert(item);
       }
+      return;
     }
 
-    //swap with higher priority child, if necessary
-    if (((T) heap[index]).compareTo((T) heap[higherPriorityChildIndex]) < 0) {
-
-      swap(index, higherPriorityChildIndex);
-      percolateDown(higherPriorityChildIndex);
+    for (T item : items) {
+      heap[size++] = item;
     }
+    heapify();
+  }
 
+  /**
+   * Moves the nodes into an array of the given length.
+   *
+   * @param newCapacity - the new array length, at least size
+   */
+  private void resize(int newCapacity) {
+    heap = Arrays.copyOf(heap, Math.max(1, newCapacity));
+    capacity = heap.length;
   }
 
+  /**
+   * Helper method for remove and heapify. Moves higher priority children up into the
+   * hole at index until the node can be placed there. Every index below size holds a
+   * node, so only the bounds of the heap are checked.
+   *
+   * @param index - the position of the hole
+   * @param node  - the node being placed
+   */
+  @SuppressWarnings("unchecked") private void percolateDown(int index, T node) {
+
+    int half = size / 2; //nodes at or past half have no children
+    while (index < half) {
+      int childIndex = getLeftChild(index);
+      T child = (T) heap[childIndex];
+      int rightChildIndex = childIndex + 1;
+
+      //find higher priority child
+      if (rightChildIndex < size && comparator.compare(child, (T) heap[rightChildIndex]) < 0) {
+        childIndex = rightChildIndex;
+        child = (T) heap[rightChildIndex];
+      }
 
-  public void heapify() {
-    for (int i = (size - 1) / 2; i >= 0; i--) {
-      percolateDown(i);
+      if (comparator.compare(node, child) >= 0) {
+        break;
+      }
+      heap[index] = child;
+      index = childIndex;
     }
+    heap[index] = node;
   }
 
-  @SuppressWarnings("unchecked") private void swap(int indexOne, int indexTwo) {
-    T temp = (T) heap[indexTwo];
-    heap[indexTwo] = heap[indexOne];
-    heap[indexOne] = temp;
+
+  @SuppressWarnings("unchecked") public void heapify() {
+    for (int i = size / 2 - 1; i >= 0; i--) {
+      percolateDown(i, (T) heap[i]);
+    }
   }
 
   private int getLeftChild(int index) {
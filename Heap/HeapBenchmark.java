@@ -0,0 +1,135 @@
+package DataStructures.PriorityQueueAndHeaps;
+
+import java.util.Collections;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Compares Heap and the primitive IntHeap with java.util.PriorityQueue (in reverse order,
+ * so that all are max heaps) on two workloads over random Integers:
+ *   fill/drain -- insert n items, then remove all of them
+ *   hold       -- with n items held, repeatedly remove the best and insert a new item
+ *
+ * Each workload is run a few times to warm up the JIT, and the best time is reported.
+ *
+ * Run with: java DataStructures.PriorityQueueAndHeaps.HeapBenchmark [number of items]
+ *
+ * @author Patrick Harvey
+ */
+public class HeapBenchmark {
+
+  private static final int ROUNDS = 7;
+
+  private interface Workload {
+    long run();
+  }
+
+  /**
+   * Runs the workload ROUNDS times and prints the best time per operation.
+   *
+   * @param name       - the name printed for the workload
+   * @param operations - the number of inserts and removes made by one run
+   * @param workload   - the workload, returning a checksum of the removed items
+   */
+  private static void measure(String name, long operations, Workload workload) {
+    long best = Long.MAX_VALUE;
+    long checksum = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      checksum += workload.run();
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    System.out.printf("%-28s %7.1f ns/op   (%d)%n", name, (double) best / operations, checksum & 1);
+  }
+
+  public static void main(String[] args) {
+    int count = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+
+    Random random = new Random(42);
+    Integer[] items = new Integer[2 * count];
+    for (int i = 0; i < items.length; i++) {
+      items[i] = random.nextInt();
+    }
+
+    measure("Heap fill/drain", 2L * count, () -> {
+      Heap<Integer> heap = new Heap<>(count);
+      for (int i = 0; i < count; i++) {
+        heap.insert(items[i]);
+      }
+      long sum = 0;
+      while (!heap.isEmpty()) {
+        sum += heap.removeBest();
+      }
+      return sum;
+    });
+
+    measure("PriorityQueue fill/drain", 2L * count, () -> {
+      PriorityQueue<Integer> queue = new PriorityQueue<>(count, Collections.reverseOrder());
+      for (int i = 0; i < count; i++) {
+        queue.add(items[i]);
+      }
+      long sum = 0;
+      while (!queue.isEmpty()) {
+        sum += queue.poll();
+      }
+      return sum;
+    });
+
+    measure("Heap hold", 2L * count, () -> {
+      Heap<Integer> heap = new Heap<>(count);
+      for (int i = 0; i < count; i++) {
+        heap.insert(items[i]);
+      }
+      long sum = 0;
+      for (int i = count; i < items.length; i++) {
+        sum += heap.removeBest();
+        heap.insert(items[i]);
+      }
+      return sum;
+    });
+
+    measure("PriorityQueue hold", 2L * count, () -> {
+      PriorityQueue<Integer> queue = new PriorityQueue<>(count, Collections.reverseOrder());
+      for (int i = 0; i < count; i++) {
+        queue.add(items[i]);
+      }
+      long sum = 0;
+      for (int i = count; i < items.length; i++) {
+        sum += queue.poll();
+        queue.add(items[i]);
+      }
+      return sum;
+    });
+
+    int[] values = new int[items.length];
+    for (int i = 0; i < items.length; i++) {
+      values[i] = items[i];
+    }
+
+    measure("IntHeap fill/drain", 2L * count, () -> {
+      IntHeap heap = new IntHeap(count);
+      for (int i = 0; i < count; i++) {
+        heap.insert(values[i]);
+      }
+      long sum = 0;
+      while (!heap.isEmpty()) {
+        sum += heap.removeBest();
+      }
+      return sum;
+    });
+
+    measure("IntHeap hold", 2L * count, () -> {
+      IntHeap heap = new IntHeap(count);
+      for (int i = 0; i < count; i++) {
+        heap.insert(values[i]);
+      }
+      long sum = 0;
+      for (int i = count; i < values.length; i++) {
+        sum += heap.removeBest();
+        heap.insert(values[i]);
+      }
+      return sum;
+    });
+  }
+
+}
@@ -0,0 +1,300 @@
+package DataStructures.PriorityQueueAndHeaps;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+//***Key Application: A priority queue whose entries can be found again after they are inserted,
+//e.g. the frontier of Dijkstra's algorithm, where a vertex's distance is lowered in place
+//instead of inserting a duplicate entry for it
+//
+//Each entry has an int key, chosen by the caller, e.g. the index of a vertex. Besides the
+//heap of keys, a position index maps every key to its place in the heap, so that
+//contains() is O(1) and decreaseKey(), increaseKey() and remove() are O(log n).
+//
+//    heap[i]        = the key stored at heap position i
+//    position[key]  = the heap position of key, or -1 if key is not in the heap
+//    priority[key]  = the priority of key
+//
+//Ordering: as in Heap, the best entry has the greatest priority by the comparator (natural
+//order by default, i.e. a max heap). decreaseKey() and increaseKey() refer to the natural
+//order of the priorities, so in a min heap (Comparator.reverseOrder()) decreaseKey() moves
+//an entry towards the root.
+//
+//Capacity: the arrays grow to fit the largest key and the number of entries.
+//
+public class IndexedHeap<T extends Comparable<T>> {
+
+  private int[] heap;
+  private int[] position;
+  private Object[] priority;
+  private int size;
+  private final Comparator<? super T> comparator;
+
+  /**
+   * Creates a max heap.
+   *
+   * @param keyCapacity - the expected number of keys; keys from 0 to keyCapacity - 1 fit without growing
+   */
+  public IndexedHeap(int keyCapacity) {
+    this(keyCapacity, Comparator.naturalOrder());
+  }
+
+  /**
+   * @param keyCapacity - the expected number of keys; keys from 0 to keyCapacity - 1 fit without growing
+   * @param comparator  - the ordering of the heap, whose greatest priority is the best
+   */
+  public IndexedHeap(int keyCapacity, Comparator<? super T> comparator) {
+    keyCapacity = Math.max(1, keyCapacity);
+    this.heap = new int[keyCapacity];
+    this.position = new int[keyCapacity];
+    this.priority = new Object[keyCapacity];
+    this.comparator = comparator;
+    Arrays.fill(position, -1);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @param key - a key
+   * @return true if the key is in the heap
+   */
+  public boolean contains(int key) {
+    return key >= 0 && key < position.length && position[key] >= 0;
+  }
+
+  /**
+   * @param key - a key in the heap
+   * @return the priority of the key
+   * @throws NoSuchElementException if the key is not in the heap
+   */
+  @SuppressWarnings("unchecked") public T priorityOf(int key) {
+    checkContains(key);
+    return (T) priority[key];
+  }
+
+  /**
+   * Inserts a key with the given priority.
+   *
+   * @param key         - the key, at least 0
+   * @param newPriority - the priority of the key
+   * @throws IllegalArgumentException if the key is negative or already in the heap
+   */
+  public void insert(int key, T newPriority) {
+    if (key < 0) {
+      throw new IllegalArgumentException("Key must not be negative.");
+    }
+    if (contains(key)) {
+      throw new IllegalArgumentException("Key " + key + " is already in the heap.");
+    }
+
+    if (key >= position.length) {
+      int length = Math.max(key + 1, position.length * 2);
+      int oldLength = position.length;
+      position = Arrays.copyOf(position, length);
+      priority = Arrays.copyOf(priority, length);
+      Arrays.fill(position, oldLength, length, -1);
+    }
+    if (size == heap.length) {
+      heap = Arrays.copyOf(heap, size * 2);
+    }
+
+    priority[key] = newPriority;
+    percolateUp(size++, key);
+  }
+
+  /**
+   * @return the key of the highest priority entry, without removing it
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public int peekBest() {
+    if (size == 0)
+      throw new NoSuchElementException("Empty heap!");
+    return heap[0];
+  }
+
+  /**
+   * Removes the highest priority entry from this heap.
+   *
+   * @return the key of the highest priority entry
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public int removeBest() {
+    if (size == 0)
+      throw new NoSuchElementException("Empty heap!");
+
+    int key = heap[0];
+    removeAt(0);
+    return key;
+  }
+
+  /**
+   * Removes a key from this heap.
+   *
+   * @param key - a key in the heap
+   * @return the priority the key had
+   * @throws NoSuchElementException if the key is not in the heap
+   */
+  @SuppressWarnings("unchecked") public T remove(int key) {
+    checkContains(key);
+    T removed = (T) priority[key];
+    removeAt(position[key]);
+    return removed;
+  }
+
+  /**
+   * Lowers the priority of a key, in the natural order of the priorities.
+   *
+   * @param key         - a key in the heap
+   * @param newPriority - a priority no greater than the key's current priority
+   * @throws NoSuchElementException if the key is not in the heap
+   * @throws IllegalArgumentException if the new priority is greater than the current one
+   */
+  @SuppressWarnings("unchecked") public void decreaseKey(int key, T newPriority) {
+    checkContains(key);
+    if (newPriority.compareTo((T) priority[key]) > 0) {
+      throw new IllegalArgumentException("New priority " + newPriority + " is greater than " + priority[key] + ".");
+    }
+    changePriority(key, newPriority);
+  }
+
+  /**
+   * Raises the priority of a key, in the natural order of the priorities.
+   *
+   * @param key         - a key in the heap
+   * @param newPriority - a priority no less than the key's current priority
+   * @throws NoSuchElementException if the key is not in the heap
+   * @throws IllegalArgumentException if the new priority is less than the current one
+   */
+  @SuppressWarnings("unchecked") public void increaseKey(int key, T newPriority) {
+    checkContains(key);
+    if (newPriority.compareTo((T) priority[key]) < 0) {
+      throw new IllegalArgumentException("New priority " + newPriority + " is less than " + priority[key] + ".");
+    }
+    changePriority(key, newPriority);
+  }
+
+  /**
+   * Sets the priority of a key, moving it up or down the heap as needed.
+   *
+   * @param key         - a key in the heap
+   * @param newPriority - the new priority of the key
+   * @throws NoSuchElementException if the key is not in the heap
+   */
+  @SuppressWarnings("unchecked") public void changePriority(int key, T newPriority) {
+    checkContains(key);
+    T oldPriority = (T) priority[key];
+    priority[key] = newPriority;
+
+    if (comparator.compare(newPriority, oldPriority) > 0) {
+      percolateUp(position[key], key);
+    } else {
+      percolateDown(position[key], key);
+    }
+  }
+
+  /**
+   * Removes every entry.
+   */
+  public void clear() {
+    for (int i = 0; i < size; i++) {
+      position[heap[i]] = -1;
+      priority[heap[i]] = null;
+    }
+    size = 0;
+  }
+
+  private void checkContains(int key) {
+    if (!contains(key)) {
+      throw new NoSuchElementException("Key " + key + " is not in the heap.");
+    }
+  }
+
+  /**
+   * Removes the entry at the given heap position, filling the hole with the final entry.
+   */
+  @SuppressWarnings("unchecked") private void removeAt(int index) {
+    int key = heap[index];
+    position[key] = -1;
+    priority[key] = null;
+    size--;
+
+    if (index < size) {
+      int last = heap[size];
+      //the final entry may belong above or below the hole
+      if (index > 0 && comparator.compare((T) priority[last], (T) priority[heap[(index - 1) / 2]]) > 0) {
+        percolateUp(index, last);
+      } else {
+        percolateDown(index, last);
+      }
+    }
+  }
+
+  /**
+   * Moves lower priority parents down into the hole at index until the key can be
+   * placed there.
+   */
+  @SuppressWarnings("unchecked") private void percolateUp(int index, int key) {
+    T node = (T) priority[key];
+
+    while (index > 0) {
+      int parentIndex = (index - 1) / 2;
+      int parent = heap[parentIndex];
+      if (comparator.compare(node, (T) priority[parent]) <= 0) {
+        break;
+      }
+      heap[index] = parent;
+      position[parent] = index;
+      index = parentIndex;
+    }
+    heap[index] = key;
+    position[key] = index;
+  }
+
+  /**
+   * Moves higher priority children up into the hole at index until the key can be
+   * placed there.
+   */
+  @SuppressWarnings("unchecked") private void percolateDown(int index, int key) {
+    T node = (T) priority[key];
+    int half = size / 2; //entries at or past half have no children
+
+    while (index < half) {
+      int childIndex = 2 * index + 1;
+      int child = heap[childIndex];
+      int rightChildIndex = childIndex + 1;
+
+      if (rightChildIndex < size && comparator.compare((T) priority[child], (T) priority[heap[rightChildIndex]]) < 0) {
+        childIndex = rightChildIndex;
+        child = heap[rightChildIndex];
+      }
+
+      if (comparator.compare(node, (T) priority[child]) >= 0) {
+        break;
+      }
+      heap[index] = child;
+      position[child] = index;
+      index = childIndex;
+    }
+    heap[index] = key;
+    position[key] = index;
+  }
+
+  @Override public String toString() {
+    StringBuilder builder = new StringBuilder("[");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(heap[i]).append('=').append(priority[heap[i]]);
+    }
+    return builder.append("]").toString();
+  }
+
+}
@@ -0,0 +1,195 @@
+package DataStructures.PriorityQueueAndHeaps;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+//***Key Application: A Heap of primitive longs, for priority queues that hold very many values
+//
+//Heap<Long> stores boxed Longs in an Object[] and calls compareTo on every comparison.
+//LongHeap keeps the values in a long[], compares them directly, and allocates nothing except
+//when its array grows or shrinks. It has the same operations as PriorityQueueADT, but cannot
+//implement that interface without boxing.
+//
+//Ordering: a max heap by default. A min heap stores the bitwise complement (~value) of each
+//value, which reverses the order without overflow, so both kinds share one comparison.
+//
+//Capacity: the array doubles when full, and halves when it is less than a quarter used,
+//but never below the capacity the heap was created with.
+//
+public class LongHeap {
+
+  //heap storage within an array
+  //
+  // parent(index) = (index - 1) / 2
+  // left(index)   = 2 * index + 1
+  // right(index)  = 2 * index + 2
+  //
+  private long[] heap;
+  private int size;
+  private final int minCapacity;
+  private final long flip; //0 for a max heap, -1 (all bits set) for a min heap
+
+  /**
+   * Creates a max heap.
+   *
+   * @param capacity - the initial capacity, below which the heap never shrinks
+   */
+  public LongHeap(int capacity) {
+    this(capacity, false);
+  }
+
+  /**
+   * @param capacity - the initial capacity, below which the heap never shrinks
+   * @param minHeap  - true for a heap whose best value is its smallest, false for its largest
+   */
+  public LongHeap(int capacity, boolean minHeap) {
+    this.heap = new long[Math.max(1, capacity)];
+    this.minCapacity = heap.length;
+    this.flip = minHeap ? -1L : 0L;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean isMinHeap() {
+    return flip != 0;
+  }
+
+  /**
+   * Inserts a value, moving lower priority parents down into the hole until the
+   * value's position is found.
+   *
+   * @param value - the value to insert
+   */
+  public void insert(long value) {
+    if (size == heap.length) {
+      heap = Arrays.copyOf(heap, heap.length * 2);
+    }
+    percolateUp(size++, value ^ flip);
+  }
+
+  /**
+   * Inserts every value of the batch. A batch at least as large as the heap is appended
+   * and the whole array is rebuilt with Floyd's method in O(n + k) time.
+   *
+   * @param values - the values to insert
+   */
+  public void insertAll(long[] values) {
+    if (size + values.length > heap.length) {
+      heap = Arrays.copyOf(heap, Math.max(size + values.length, heap.length * 2));
+    }
+
+    if (values.length < size) {
+      for (long value : values) {
+        percolateUp(size++, value ^ flip);
+      }
+      return;
+    }
+
+    for (long value : values) {
+      heap[size++] = value ^ flip;
+    }
+    for (int i = size / 2 - 1; i >= 0; i--) {
+      percolateDown(i, heap[i]);
+    }
+  }
+
+  /**
+   * Removes the value of highest priority from this heap.
+   *
+   * @return the highest priority value
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public long removeBest() {
+    if (size == 0)
+      throw new NoSuchElementException("Empty heap!");
+
+    long removed = heap[0];
+    size--;
+    if (size > 0) {
+      percolateDown(0, heap[size]);
+    }
+
+    //shrink when a quarter full, so that growing again right away is never needed
+    if (size < heap.length / 4 && heap.length / 2 >= minCapacity) {
+      heap = Arrays.copyOf(heap, heap.length / 2);
+    }
+    return removed ^ flip;
+  }
+
+  /**
+   * @return the highest priority value, without removing it
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public long peekBest() {
+    if (size == 0)
+      throw new NoSuchElementException("Empty heap!");
+    return heap[0] ^ flip;
+  }
+
+  /**
+   * Removes every value, keeping the current array.
+   */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Moves lower priority parents down into the hole at index until the value can be
+   * placed there.
+   */
+  private void percolateUp(int index, long value) {
+    while (index > 0) {
+      int parentIndex = (index - 1) >>> 1;
+      long parent = heap[parentIndex];
+      if (value <= parent) {
+        break;
+      }
+      heap[index] = parent;
+      index = parentIndex;
+    }
+    heap[index] = value;
+  }
+
+  /**
+   * Moves higher priority children up into the hole at index until the value can be
+   * placed there.
+   */
+  private void percolateDown(int index, long value) {
+    int half = size / 2; //values at or past half have no children
+    while (index < half) {
+      int childIndex = 2 * index + 1;
+      long child = heap[childIndex];
+      int rightChildIndex = childIndex + 1;
+
+      if (rightChildIndex < size && child < heap[rightChildIndex]) {
+        childIndex = rightChildIndex;
+        child = heap[rightChildIndex];
+      }
+
+      if (value >= child) {
+        break;
+      }
+      heap[index] = child;
+      index = childIndex;
+    }
+    heap[index] = value;
+  }
+
+  @Override public String toString() {
+    StringBuilder builder = new StringBuilder("[");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(heap[i] ^ flip);
+    }
+    return builder.append("]").toString();
+  }
+
+}
@@ -0,0 +1,153 @@
+package DataStructures.PriorityQueueAndHeaps;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compares Heap, PairingHeap and FibonacciHeap on three traces over random Integers:
+ *   insert-heavy -- 4 inserts for every removeBest(), starting from an empty queue
+ *   pop-heavy    -- insert n items, then remove all of them
+ *   merge-heavy  -- build 1024 queues of n / 1024 items, merge them pairwise into a single
+ *                   queue, then remove a tenth of the items
+ *
+ * Heap has no meld, so merging a Heap inserts every item of the other heap with insertAll().
+ *
+ * Run with: java DataStructures.PriorityQueueAndHeaps.MeldableHeapBenchmark [number of items]
+ *
+ * @author Patrick Harvey
+ */
+public class MeldableHeapBenchmark {
+
+  private static final int ROUNDS = 5;
+  private static final int PARTITIONS = 1024;
+
+  /**
+   * The operations of a queue under test, with meld for all three kinds of heap.
+   */
+  private interface MeldableQueue extends PriorityQueueADT<Integer> {
+    void meld(MeldableQueue other);
+  }
+
+  private static final class HeapQueue implements MeldableQueue {
+    private final Heap<Integer> heap = new Heap<>(16);
+
+    @Override public void insert(Integer newData) { heap.insert(newData); }
+    @Override public Integer removeBest() { return heap.removeBest(); }
+    @Override public Integer peekBest() { return heap.peekBest(); }
+    @Override public boolean isEmpty() { return heap.isEmpty(); }
+
+    @Override public void meld(MeldableQueue other) {
+      Heap<Integer> otherHeap = ((HeapQueue) other).heap;
+      heap.insertAll(Arrays.asList(Arrays.copyOf(otherHeap.heap, otherHeap.size(), Integer[].class)));
+    }
+  }
+
+  private static final class PairingQueue implements MeldableQueue {
+    private final PairingHeap<Integer> heap = new PairingHeap<>();
+
+    @Override public void insert(Integer newData) { heap.insert(newData); }
+    @Override public Integer removeBest() { return heap.removeBest(); }
+    @Override public Integer peekBest() { return heap.peekBest(); }
+    @Override public boolean isEmpty() { return heap.isEmpty(); }
+    @Override public void meld(MeldableQueue other) { heap.meld(((PairingQueue) other).heap); }
+  }
+
+  private static final class FibonacciQueue implements MeldableQueue {
+    private final FibonacciHeap<Integer> heap = new FibonacciHeap<>();
+
+    @Override public void insert(Integer newData) { heap.insert(newData); }
+    @Override public Integer removeBest() { return heap.removeBest(); }
+    @Override public Integer peekBest() { return heap.peekBest(); }
+    @Override public boolean isEmpty() { return heap.isEmpty(); }
+    @Override public void meld(MeldableQueue other) { heap.meld(((FibonacciQueue) other).heap); }
+  }
+
+  private interface Trace {
+    long run(Supplier<MeldableQueue> factory, Integer[] items);
+  }
+
+  private static long insertHeavy(Supplier<MeldableQueue> factory, Integer[] items) {
+    MeldableQueue queue = factory.get();
+    long sum = 0;
+    for (int i = 0; i < items.length; i++) {
+      queue.insert(items[i]);
+      if (i % 5 == 4) {
+        sum += queue.removeBest();
+      }
+    }
+    return sum;
+  }
+
+  private static long popHeavy(Supplier<MeldableQueue> factory, Integer[] items) {
+    MeldableQueue queue = factory.get();
+    for (Integer item : items) {
+      queue.insert(item);
+    }
+    long sum = 0;
+    while (!queue.isEmpty()) {
+      sum += queue.removeBest();
+    }
+    return sum;
+  }
+
+  private static long mergeHeavy(Supplier<MeldableQueue> factory, Integer[] items) {
+    MeldableQueue[] queues = new MeldableQueue[PARTITIONS];
+    for (int p = 0; p < PARTITIONS; p++) {
+      queues[p] = factory.get();
+    }
+    for (int i = 0; i < items.length; i++) {
+      queues[i % PARTITIONS].insert(items[i]);
+    }
+
+    //merge neighbouring queues until one is left
+    for (int width = 1; width < PARTITIONS; width *= 2) {
+      for (int p = 0; p + width < PARTITIONS; p += 2 * width) {
+        queues[p].meld(queues[p + width]);
+      }
+    }
+
+    long sum = 0;
+    for (int i = 0; i < items.length / 10; i++) {
+      sum += queues[0].removeBest();
+    }
+    return sum;
+  }
+
+  /**
+   * Runs the trace ROUNDS times and prints the best time.
+   */
+  private static void measure(String trace, String name, Trace run, Supplier<MeldableQueue> factory, Integer[] items) {
+    long best = Long.MAX_VALUE;
+    long checksum = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      checksum += run.run(factory, items);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    System.out.printf("%-13s %-14s %9.2f ms   (%d)%n", trace, name, best / 1e6, checksum & 1);
+  }
+
+  public static void main(String[] args) {
+    int count = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+
+    Random random = new Random(42);
+    Integer[] items = new Integer[count];
+    for (int i = 0; i < count; i++) {
+      items[i] = random.nextInt();
+    }
+
+    String[] names = { "Heap", "PairingHeap", "FibonacciHeap" };
+    List<Supplier<MeldableQueue>> factories = Arrays.asList(HeapQueue::new, PairingQueue::new, FibonacciQueue::new);
+    String[] traces = { "insert-heavy", "pop-heavy", "merge-heavy" };
+    Trace[] runs = { MeldableHeapBenchmark::insertHeavy, MeldableHeapBenchmark::popHeavy, MeldableHeapBenchmark::mergeHeavy };
+
+    for (int t = 0; t < traces.length; t++) {
+      for (int q = 0; q < names.length; q++) {
+        measure(traces[t], names[q], runs[t], factories.get(q), items);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,200 @@
+package DataStructures.PriorityQueueAndHeaps;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+//***Key Application: A concurrent priority queue for many worker threads that take tasks in
+//roughly, rather than exactly, best-first order
+//
+//Structure (a MultiQueue): c * P independent Heaps, for P threads, each guarded by its own
+//lock. Each queue also publishes a copy of its best item, so choosing a queue reads no locks.
+//    1. insert     -- lock a random queue and insert into it
+//    2. removeBest -- read the best items of two random queues, lock the queue whose item
+//                     is better, and remove that item
+//A lock that is already held is not waited for; another random queue is tried instead.
+//Since threads rarely pick the same queue, throughput grows with the number of threads.
+//
+//Relaxed ordering: removeBest() does not always return the best item in the whole structure,
+//only the better of two queue tops. With m = c * P queues, the rank of the removed item (the
+//number of better items still present) is O(m) in expectation and O(m log m) with high
+//probability (Alistarh et al., "The Power of Choice in Priority Scheduling", 2017). A
+//higher c lowers lock contention but raises the rank error; c = 2 is a good default.
+//MultiQueueBenchmark measures both.
+//
+//Ordering is as in Heap: the best item is the greatest by the comparator (natural order by
+//default, i.e. a max heap).
+//
+public class MultiQueue<T extends Comparable<T>> implements PriorityQueueADT<T> {
+
+  /**
+   * One of the heaps, with its lock and the published copy of its best item.
+   */
+  private static final class Queue<T extends Comparable<T>> {
+    final ReentrantLock lock = new ReentrantLock();
+    final Heap<T> heap;
+    volatile T top;
+
+    Queue(Comparator<? super T> comparator) {
+      this.heap = new Heap<T>(16, comparator);
+    }
+  }
+
+  private final Queue<T>[] queues;
+  private final Comparator<? super T> comparator;
+  private final LongAdder size = new LongAdder();
+
+  /**
+   * Creates a max heap with 2 queues per available processor.
+   */
+  public MultiQueue() {
+    this(Runtime.getRuntime().availableProcessors(), 2, Comparator.naturalOrder());
+  }
+
+  /**
+   * @param threads          - the number of threads expected to use the queue
+   * @param queuesPerThread  - c, the number of heaps per thread
+   * @param comparator       - the ordering of the queue, whose greatest item is the best
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public MultiQueue(int threads, int queuesPerThread, Comparator<? super T> comparator) {
+    if (threads < 1 || queuesPerThread < 1) {
+      throw new IllegalArgumentException("Threads and queues per thread must be at least 1.");
+    }
+    //at least two queues, so that removeBest has two to choose from
+    this.queues = new Queue[Math.max(2, threads * queuesPerThread)];
+    for (int i = 0; i < queues.length; i++) {
+      queues[i] = new Queue<T>(comparator);
+    }
+    this.comparator = comparator;
+  }
+
+  /**
+   * @return the number of heaps
+   */
+  public int getQueueCount() {
+    return queues.length;
+  }
+
+  /**
+   * Returns the number of items. While other threads insert or remove items, the
+   * result is only an estimate.
+   *
+   * @return the number of items
+   */
+  public long size() {
+    return size.sum();
+  }
+
+  /**
+   * Inserts an item into a random heap.
+   *
+   * @param newData - the item to insert
+   */
+  @Override public void insert(T newData) {
+    if (newData == null) {
+      throw new NullPointerException("Items must not be null.");
+    }
+
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    while (true) {
+      Queue<T> queue = queues[random.nextInt(queues.length)];
+      if (queue.lock.tryLock()) {
+        try {
+          queue.heap.insert(newData);
+          queue.top = queue.heap.peekBest();
+        } finally {
+          queue.lock.unlock();
+        }
+        size.increment();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Removes the better of the best items of two random heaps.
+   *
+   * @return a high priority item, see the note on relaxed ordering above
+   * @throws NoSuchElementException if every heap is empty
+   */
+  @Override public T removeBest() throws NoSuchElementException {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+
+    for (int attempt = 0; ; attempt++) {
+      int first = random.nextInt(queues.length);
+      int second = random.nextInt(queues.length - 1);
+      if (second >= first) {
+        second++;
+      }
+
+      T firstTop = queues[first].top;
+      T secondTop = queues[second].top;
+      Queue<T> queue;
+      if (firstTop == null && secondTop == null) {
+        //after a few misses, check whether every heap is empty
+        if (attempt >= queues.length && isEmpty()) {
+          throw new NoSuchElementException("Empty heap!");
+        }
+        continue;
+      } else if (secondTop == null || (firstTop != null && comparator.compare(firstTop, secondTop) >= 0)) {
+        queue = queues[first];
+      } else {
+        queue = queues[second];
+      }
+
+      if (queue.lock.tryLock()) {
+        try {
+          //the heap may have been emptied since its top was read
+          if (!queue.heap.isEmpty()) {
+            T removed = queue.heap.removeBest();
+            queue.top = queue.heap.peekBest();
+            size.decrement();
+            return removed;
+          }
+        } finally {
+          queue.lock.unlock();
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the best of the published best items of all heaps. While other threads
+   * insert or remove items, the result may already be out of date.
+   *
+   * @return the best item, or null if every heap is empty
+   */
+  @Override public T peekBest() {
+    T best = null;
+    for (Queue<T> queue : queues) {
+      T top = queue.top;
+      if (top != null && (best == null || comparator.compare(top, best) > 0)) {
+        best = top;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Returns whether every heap is empty. While other threads insert or remove items,
+   * the result may already be out of date.
+   *
+   * @return true if no heap holds an item
+   */
+  @Override public boolean isEmpty() {
+    for (Queue<T> queue : queues) {
+      if (queue.top != null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override public String toString() {
+    return "MultiQueue[queues=" + queues.length + ", size=" + size() + "]";
+  }
+
+}
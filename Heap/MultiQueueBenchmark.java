@@ -0,0 +1,134 @@
+package DataStructures.PriorityQueueAndHeaps;
+
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures MultiQueue against a single Heap guarded by one lock.
+ *
+ * Throughput: with 1, 2, 4, ... threads up to the given maximum, each thread repeatedly
+ * removes an item and inserts a new one into a queue prefilled with PREFILL items. The
+ * total number of operations per microsecond is reported.
+ *
+ * Rank error: on a single thread, the items 0 .. n-1 are inserted into a MultiQueue
+ * with m queues and then all removed. For each removal, the number of items still in the
+ * queue that are better than the removed one is counted (with a Fenwick tree), and the
+ * mean and maximum are reported for several values of c.
+ *
+ * Run with: java DataStructures.PriorityQueueAndHeaps.MultiQueueBenchmark [max threads]
+ *
+ * @author Patrick Harvey
+ */
+public class MultiQueueBenchmark {
+
+  private static final int PREFILL = 1_000_000;
+  private static final int OPERATIONS_PER_THREAD = 2_000_000;
+
+  /**
+   * A single Heap behind one lock, the baseline the MultiQueue replaces.
+   */
+  private static final class LockedHeap implements PriorityQueueADT<Integer> {
+    private final Heap<Integer> heap = new Heap<>(PREFILL);
+
+    @Override public synchronized void insert(Integer newData) { heap.insert(newData); }
+    @Override public synchronized Integer removeBest() { return heap.removeBest(); }
+    @Override public synchronized Integer peekBest() { return heap.peekBest(); }
+    @Override public synchronized boolean isEmpty() { return heap.isEmpty(); }
+  }
+
+  /**
+   * Runs the remove/insert workload on the given number of threads.
+   *
+   * @return operations per microsecond, counting a remove and an insert as two operations
+   */
+  private static double throughput(PriorityQueueADT<Integer> queue, int threads) throws InterruptedException {
+    for (int i = 0; i < PREFILL; i++) {
+      queue.insert(ThreadLocalRandom.current().nextInt());
+    }
+
+    CountDownLatch start = new CountDownLatch(1);
+    Thread[] workers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      workers[t] = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+          queue.removeBest();
+          queue.insert(random.nextInt());
+        }
+      });
+      workers[t].start();
+    }
+
+    long begin = System.nanoTime();
+    start.countDown();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    long nanos = System.nanoTime() - begin;
+    return 2.0 * threads * OPERATIONS_PER_THREAD / (nanos / 1000.0);
+  }
+
+  /**
+   * Prints the mean and maximum rank error of removing every item of 0 .. n-1 from a
+   * MultiQueue with the given number of queues.
+   */
+  private static void rankError(int queueCount, int n) {
+    MultiQueue<Integer> queue = new MultiQueue<Integer>(queueCount, 1, Comparator.naturalOrder());
+    for (int i = 0; i < n; i++) {
+      queue.insert(i);
+    }
+
+    //fenwick[i] counts the items still present among a range ending at value i - 1
+    int[] fenwick = new int[n + 1];
+    for (int i = 1; i <= n; i++) {
+      fenwick[i]++;
+      int parent = i + (i & -i);
+      if (parent <= n) {
+        fenwick[parent] += fenwick[i];
+      }
+    }
+
+    long totalRank = 0;
+    long maxRank = 0;
+    for (int removed = 0; removed < n; removed++) {
+      int value = queue.removeBest();
+
+      //count the items still present that are greater than value
+      int atMost = 0;
+      for (int i = value + 1; i > 0; i -= i & -i) {
+        atMost += fenwick[i];
+      }
+      long rank = (n - removed) - atMost;
+      totalRank += rank;
+      maxRank = Math.max(maxRank, rank);
+
+      for (int i = value + 1; i <= n; i += i & -i) {
+        fenwick[i]--;
+      }
+    }
+    System.out.printf("  %4d queues   mean rank error %8.2f   max %6d%n", queueCount, (double) totalRank / n, maxRank);
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    int maxThreads = (args.length > 0) ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+
+    System.out.println("Throughput (operations per microsecond)");
+    for (int threads = 1; threads <= maxThreads; threads *= 2) {
+      double locked = throughput(new LockedHeap(), threads);
+      double multi = throughput(new MultiQueue<Integer>(threads, 2, Comparator.naturalOrder()), threads);
+      System.out.printf("  %3d threads   locked Heap %7.2f   MultiQueue (c = 2) %7.2f%n", threads, locked, multi);
+    }
+
+    System.out.println("Rank error of removeBest, single threaded");
+    for (int queueCount : new int[] { 2, 8, 32, 128 }) {
+      rankError(queueCount, PREFILL);
+    }
+  }
+
+}
@@ -0,0 +1,122 @@
+package DataStructures.PriorityQueueAndHeaps;
+
+import java.util.NoSuchElementException;
+
+//***Key Application: A priority queue of (priority, payload) int pairs, e.g. (deadline, task id),
+//stored without any objects
+//
+//Each pair is packed into a single long of a LongHeap:
+//
+//    bits 63..32 = priority (signed)
+//    bits 31..0  = payload  (unsigned)
+//
+//so one primitive comparison orders pairs by priority, and pairs of equal priority by
+//payload. Inserting and removing pairs allocates nothing.
+//
+public class PackedPriorityHeap {
+
+  private final LongHeap heap;
+
+  /**
+   * Creates a heap whose best pair has the largest priority.
+   *
+   * @param capacity - the initial capacity, below which the heap never shrinks
+   */
+  public PackedPriorityHeap(int capacity) {
+    this(capacity, false);
+  }
+
+  /**
+   * @param capacity - the initial capacity, below which the heap never shrinks
+   * @param minHeap  - true for a heap whose best pair has the smallest priority
+   */
+  public PackedPriorityHeap(int capacity, boolean minHeap) {
+    this.heap = new LongHeap(capacity, minHeap);
+  }
+
+  /**
+   * @param priority - the priority of the pair
+   * @param payload  - the payload of the pair
+   * @return the pair packed into one long
+   */
+  public static long pack(int priority, int payload) {
+    return ((long) priority << 32) | (payload & 0xFFFFFFFFL);
+  }
+
+  /**
+   * @param packed - a pair made by pack()
+   * @return the priority of the pair
+   */
+  public static int priorityOf(long packed) {
+    return (int) (packed >> 32);
+  }
+
+  /**
+   * @param packed - a pair made by pack()
+   * @return the payload of the pair
+   */
+  public static int payloadOf(long packed) {
+    return (int) packed;
+  }
+
+  public int size() {
+    return heap.size();
+  }
+
+  public boolean isEmpty() {
+    return heap.isEmpty();
+  }
+
+  /**
+   * @param priority - the priority of the new pair
+   * @param payload  - the payload of the new pair
+   */
+  public void insert(int priority, int payload) {
+    heap.insert(pack(priority, payload));
+  }
+
+  /**
+   * Removes the pair of highest priority from this heap.
+   *
+   * @return the highest priority pair, packed; see priorityOf() and payloadOf()
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public long removeBest() {
+    return heap.removeBest();
+  }
+
+  /**
+   * Removes the pair of highest priority from this heap.
+   *
+   * @return the payload of the highest priority pair
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public int removeBestPayload() {
+    return payloadOf(heap.removeBest());
+  }
+
+  /**
+   * @return the highest priority pair, packed, without removing it
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public long peekBest() {
+    return heap.peekBest();
+  }
+
+  /**
+   * @return the priority of the highest priority pair
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public int peekBestPriority() {
+    return priorityOf(heap.peekBest());
+  }
+
+  public void clear() {
+    heap.clear();
+  }
+
+  @Override public String toString() {
+    return "PackedPriorityHeap[size=" + size() + "]";
+  }
+
+}
@@ -0,0 +1,281 @@
+package DataStructures.PriorityQueueAndHeaps;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+//***Key Application: A meldable priority queue -- two heaps are merged in O(1) -- that also
+//supports changing the priority of an inserted item through its handle
+//
+//Structure: a single tree, stored as a root with a list of child subtrees. Every node has a
+//higher priority than its children. Each node points to its first child, its next sibling,
+//and its previous sibling (or its parent, if it is the first child).
+//
+//Operations:
+//    1. insert, meld -- link the two roots: the lower priority root becomes the first child
+//                       of the other -- O(1)
+//    2. removeBest    -- remove the root and combine its children in two passes: link
+//                       them in pairs from left to right, then link the pairs from right
+//                       to left -- O(log n) amortized
+//    3. decreaseKey / increaseKey -- a node whose priority rises is cut from its parent and
+//                       linked with the root -- O(1) in practice, o(log n) amortized; a node
+//                       whose priority falls is removed and inserted again -- O(log n) amortized
+//
+//Ordering: as in Heap, the best item is the greatest by the comparator (natural order by
+//default, i.e. a max heap). decreaseKey() and increaseKey() refer to the natural order of
+//the items, so in a min heap (Comparator.reverseOrder()) decreaseKey() raises the priority.
+//
+public class PairingHeap<T extends Comparable<T>> implements PriorityQueueADT<T> {
+
+  /**
+   * A node of the heap, returned by insertWithHandle() as the handle of its item.
+   */
+  public static final class Node<T> {
+    private T item;
+    private Node<T> child;
+    private Node<T> sibling;
+    private Node<T> previous; //previous sibling, or the parent of a first child
+
+    private Node(T item) {
+      this.item = item;
+    }
+
+    public T getItem() {
+      return item;
+    }
+  }
+
+  private Node<T> root;
+  private int size;
+  private final Comparator<? super T> comparator;
+
+  public PairingHeap() {
+    this(Comparator.naturalOrder());
+  }
+
+  /**
+   * @param comparator - the ordering of the heap, whose greatest item is the best
+   */
+  public PairingHeap(Comparator<? super T> comparator) {
+    this.comparator = comparator;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  @Override public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override public void insert(T newData) {
+    insertWithHandle(newData);
+  }
+
+  /**
+   * Inserts an item and returns its handle, which can later be passed to
+   * decreaseKey(), increaseKey() and remove().
+   *
+   * @param newData - the item to insert
+   * @return the handle of the item
+   */
+  public Node<T> insertWithHandle(T newData) {
+    Node<T> node = new Node<>(newData);
+    root = link(root, node);
+    size++;
+    return node;
+  }
+
+  @Override public T peekBest() {
+    return (root == null) ? null : root.item;
+  }
+
+  @Override public T removeBest() throws NoSuchElementException {
+    if (isEmpty())
+      throw new NoSuchElementException("Empty heap!");
+
+    T removed = root.item;
+    root = combineChildren(root);
+    size--;
+    return removed;
+  }
+
+  /**
+   * Moves every item of the other heap into this one in O(1). The other heap is left
+   * empty, and the handles of its items now belong to this heap.
+   *
+   * @param other - a heap with the same comparator
+   * @throws IllegalArgumentException if the heaps have different comparators
+   */
+  public void meld(PairingHeap<T> other) {
+    if (!comparator.equals(other.comparator)) {
+      throw new IllegalArgumentException("Only heaps with the same comparator can be melded.");
+    }
+    if (other == this) {
+      return;
+    }
+    root = link(root, other.root);
+    size += other.size;
+    other.root = null;
+    other.size = 0;
+  }
+
+  /**
+   * Lowers the item of a node, in the natural order of the items.
+   *
+   * @param node    - the handle of an item in this heap
+   * @param newItem - an item no greater than the current item
+   * @throws IllegalArgumentException if the new item is greater than the current one
+   */
+  public void decreaseKey(Node<T> node, T newItem) {
+    if (newItem.compareTo(node.item) > 0) {
+      throw new IllegalArgumentException("New item " + newItem + " is greater than " + node.item + ".");
+    }
+    changePriority(node, newItem);
+  }
+
+  /**
+   * Raises the item of a node, in the natural order of the items.
+   *
+   * @param node    - the handle of an item in this heap
+   * @param newItem - an item no less than the current item
+   * @throws IllegalArgumentException if the new item is less than the current one
+   */
+  public void increaseKey(Node<T> node, T newItem) {
+    if (newItem.compareTo(node.item) < 0) {
+      throw new IllegalArgumentException("New item " + newItem + " is less than " + node.item + ".");
+    }
+    changePriority(node, newItem);
+  }
+
+  /**
+   * Replaces the item of a node, moving the node within the heap as needed.
+   *
+   * @param node    - the handle of an item in this heap
+   * @param newItem - the new item
+   */
+  public void changePriority(Node<T> node, T newItem) {
+    boolean raised = comparator.compare(newItem, node.item) >= 0;
+    if (raised) {
+      node.item = newItem;
+      if (node != root) {
+        cut(node);
+        root = link(root, node);
+      }
+    } else {
+      remove(node);
+      node.item = newItem;
+      root = link(root, node);
+      size++;
+    }
+  }
+
+  /**
+   * Removes the item of a node from this heap.
+   *
+   * @param node - the handle of an item in this heap
+   * @return the removed item
+   */
+  public T remove(Node<T> node) {
+    if (node == root) {
+      return removeBest();
+    }
+
+    cut(node);
+    root = link(root, combineChildren(node));
+    size--;
+    return node.item;
+  }
+
+  /**
+   * Detaches a non-root node, with its subtree, from its parent's list of children.
+   */
+  private void cut(Node<T> node) {
+    if (node.previous.child == node) {
+      node.previous.child = node.sibling;
+    } else {
+      node.previous.sibling = node.sibling;
+    }
+    if (node.sibling != null) {
+      node.sibling.previous = node.previous;
+    }
+    node.previous = null;
+    node.sibling = null;
+  }
+
+  /**
+   * Makes the lower priority of two roots the first child of the other.
+   *
+   * @return the root of the linked tree
+   */
+  private Node<T> link(Node<T> first, Node<T> second) {
+    if (first == null) {
+      return second;
+    }
+    if (second == null) {
+      return first;
+    }
+    if (comparator.compare(first.item, second.item) < 0) {
+      Node<T> temp = first;
+      first = second;
+      second = temp;
+    }
+
+    second.previous = first;
+    second.sibling = first.child;
+    if (first.child != null) {
+      first.child.previous = second;
+    }
+    first.child = second;
+    return first;
+  }
+
+  /**
+   * Links the children of a node into one tree, in two passes, and detaches them
+   * from the node.
+   *
+   * @return the root of the combined tree, or null if the node has no children
+   */
+  private Node<T> combineChildren(Node<T> node) {
+    Node<T> current = node.child;
+    node.child = null;
+    if (current == null) {
+      return null;
+    }
+    current.previous = null;
+
+    //first pass: link pairs from left to right, chaining the results in reverse order
+    Node<T> pairs = null;
+    while (current != null) {
+      Node<T> first = current;
+      Node<T> second = current.sibling;
+      current = (second == null) ? null : second.sibling;
+
+      first.sibling = null;
+      if (second != null) {
+        second.sibling = null;
+        second.previous = null;
+      }
+      Node<T> pair = link(first, second);
+      pair.sibling = pairs;
+      pairs = pair;
+    }
+
+    //second pass: link the pairs from right to left
+    Node<T> result = pairs;
+    pairs = pairs.sibling;
+    result.sibling = null;
+    while (pairs != null) {
+      Node<T> next = pairs.sibling;
+      pairs.sibling = null;
+      result = link(result, pairs);
+      pairs = next;
+    }
+    result.previous = null;
+    return result;
+  }
+
+  @Override public String toString() {
+    return "PairingHeap[size=" + size + ", best=" + peekBest() + "]";
+  }
+
+}
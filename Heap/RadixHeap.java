@@ -0,0 +1,176 @@
+package DataStructures.PriorityQueueAndHeaps;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+//***Key Application: The frontier of Dijkstra's algorithm on graphs with non-negative integer
+//edge weights, or any min priority queue whose removed keys never decrease
+//
+//A monotone queue: every inserted key must be at least the last key removed. This holds in
+//Dijkstra's algorithm, since a vertex reached from the last removed vertex u has a distance
+//of at least dist(u). Each entry is a primitive long key with an int value (e.g. a vertex).
+//
+//Structure (a radix heap): entries are kept in 64 unsorted buckets by the highest bit in which
+//their key differs from `last`, the last key removed:
+//    bucket 0   -- keys equal to last
+//    bucket b   -- keys whose highest bit differing from last is bit b - 1
+//so every key in bucket b is smaller than every key in bucket b + 1.
+//Operations:
+//    1. insert    -- append to the key's bucket -- O(1)
+//    2. removeMin -- pop from bucket 0. When it is empty, find the lowest non-empty bucket,
+//                    make its smallest key the new last, and redistribute its entries, which
+//                    all move to lower buckets -- O(log C) amortized
+//Since an entry only ever moves to a lower bucket, and only the buckets up to the highest bit
+//of C are used, where C is the largest difference between an inserted key and last (at most
+//the largest edge weight in Dijkstra's algorithm), each entry is moved O(log C) times. No
+//keys are compared except to find the smallest key of a bucket.
+//
+public class RadixHeap {
+
+  private static final int BUCKETS = 64; //keys are non-negative, so bit 63 never differs
+
+  private final long[][] keys = new long[BUCKETS][];
+  private final int[][] values = new int[BUCKETS][];
+  private final int[] counts = new int[BUCKETS];
+  private long occupied; //a bit for each non-empty bucket
+  private long last;
+  private int size;
+
+  public RadixHeap() {
+    for (int b = 0; b < BUCKETS; b++) {
+      keys[b] = new long[4];
+      values[b] = new int[4];
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @return the last key removed, which every inserted key must be at least; 0 at first
+   */
+  public long lastKey() {
+    return last;
+  }
+
+  /**
+   * Inserts an entry.
+   *
+   * @param key   - the priority of the entry, at least lastKey()
+   * @param value - the value of the entry
+   * @throws IllegalArgumentException if the key is smaller than the last key removed
+   */
+  public void insert(long key, int value) {
+    if (key < last) {
+      throw new IllegalArgumentException("Key " + key + " is smaller than the last key removed, " + last + ".");
+    }
+    add(bucketOf(key), key, value);
+    size++;
+  }
+
+  /**
+   * Removes the entry with the smallest key. Entries with equal keys are removed in no
+   * particular order. The key of the removed entry is then lastKey().
+   *
+   * @return the value of the entry with the smallest key
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public int removeMin() {
+    if (size == 0)
+      throw new NoSuchElementException("Empty heap!");
+
+    fillBucketZero();
+    int removed = values[0][--counts[0]];
+    if (counts[0] == 0) {
+      occupied &= ~1L;
+    }
+    size--;
+    return removed;
+  }
+
+  /**
+   * @return the smallest key, without removing its entry
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public long peekMinKey() {
+    if (size == 0)
+      throw new NoSuchElementException("Empty heap!");
+
+    fillBucketZero();
+    return last;
+  }
+
+  /**
+   * @return the value of the entry with the smallest key, without removing it
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public int peekMinValue() {
+    if (size == 0)
+      throw new NoSuchElementException("Empty heap!");
+
+    fillBucketZero();
+    return values[0][counts[0] - 1];
+  }
+
+  /**
+   * Removes every entry and allows keys from 0 again, keeping the current arrays.
+   */
+  public void clear() {
+    Arrays.fill(counts, 0);
+    occupied = 0;
+    last = 0;
+    size = 0;
+  }
+
+  private int bucketOf(long key) {
+    return 64 - Long.numberOfLeadingZeros(key ^ last);
+  }
+
+  private void add(int bucket, long key, int value) {
+    int count = counts[bucket];
+    if (count == keys[bucket].length) {
+      keys[bucket] = Arrays.copyOf(keys[bucket], count * 2);
+      values[bucket] = Arrays.copyOf(values[bucket], count * 2);
+    }
+    keys[bucket][count] = key;
+    values[bucket][count] = value;
+    counts[bucket] = count + 1;
+    occupied |= 1L << bucket;
+  }
+
+  /**
+   * Makes the smallest key the new last key, so that its entries are in bucket 0, by
+   * redistributing the lowest non-empty bucket. The heap must not be empty.
+   */
+  private void fillBucketZero() {
+    if (counts[0] > 0) {
+      return;
+    }
+    int bucket = Long.numberOfTrailingZeros(occupied);
+    long[] bucketKeys = keys[bucket];
+    int[] bucketValues = values[bucket];
+    int count = counts[bucket];
+
+    long min = bucketKeys[0];
+    for (int i = 1; i < count; i++) {
+      min = Math.min(min, bucketKeys[i]);
+    }
+    last = min;
+
+    counts[bucket] = 0;
+    occupied &= ~(1L << bucket);
+    for (int i = 0; i < count; i++) {
+      add(bucketOf(bucketKeys[i]), bucketKeys[i], bucketValues[i]);
+    }
+  }
+
+  @Override public String toString() {
+    return "RadixHeap[size=" + size + ", last=" + last + "]";
+  }
+
+}
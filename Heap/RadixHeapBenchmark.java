@@ -0,0 +1,173 @@
+package DataStructures.PriorityQueueAndHeaps;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Runs Dijkstra's algorithm on a random directed graph with integer edge weights, using
+ * RadixHeap, Heap and java.util.PriorityQueue as the frontier, and checks that all three
+ * find the same distances. Each frontier holds (distance, vertex) entries and skips stale
+ * entries when they are removed, as CS400Graph does with its Path objects. The run is
+ * repeated for small and large maximum edge weights, since the cost of RadixHeap grows
+ * with log C.
+ *
+ * Run with: java DataStructures.PriorityQueueAndHeaps.RadixHeapBenchmark [vertices] [edges per vertex]
+ *
+ * @author Patrick Harvey
+ */
+public class RadixHeapBenchmark {
+
+  private static final int ROUNDS = 5;
+
+  /**
+   * A graph in compressed sparse row form: the edges of vertex v are
+   * targets[offsets[v]] .. targets[offsets[v + 1] - 1], with the same weights.
+   */
+  private static final class Graph {
+    final int[] offsets;
+    final int[] targets;
+    final int[] weights;
+
+    Graph(int vertices, int degree, int maxWeight, Random random) {
+      offsets = new int[vertices + 1];
+      targets = new int[vertices * degree];
+      weights = new int[vertices * degree];
+      for (int v = 0; v < vertices; v++) {
+        offsets[v + 1] = offsets[v] + degree;
+        for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+          targets[e] = random.nextInt(vertices);
+          weights[e] = 1 + random.nextInt(maxWeight);
+        }
+      }
+    }
+
+    int vertices() {
+      return offsets.length - 1;
+    }
+  }
+
+  private static final class Entry implements Comparable<Entry> {
+    final long distance;
+    final int vertex;
+
+    Entry(long distance, int vertex) {
+      this.distance = distance;
+      this.vertex = vertex;
+    }
+
+    @Override public int compareTo(Entry other) {
+      return Long.compare(distance, other.distance);
+    }
+  }
+
+  private static long[] radix(Graph graph) {
+    long[] distances = new long[graph.vertices()];
+    Arrays.fill(distances, Long.MAX_VALUE);
+    distances[0] = 0;
+    RadixHeap frontier = new RadixHeap();
+    frontier.insert(0, 0);
+
+    while (!frontier.isEmpty()) {
+      int u = frontier.removeMin();
+      long distance = frontier.lastKey();
+      if (distance > distances[u]) {
+        continue;
+      }
+      for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+        long candidate = distance + graph.weights[e];
+        int v = graph.targets[e];
+        if (candidate < distances[v]) {
+          distances[v] = candidate;
+          frontier.insert(candidate, v);
+        }
+      }
+    }
+    return distances;
+  }
+
+  private static long[] heap(Graph graph) {
+    long[] distances = new long[graph.vertices()];
+    Arrays.fill(distances, Long.MAX_VALUE);
+    distances[0] = 0;
+    Heap<Entry> frontier = new Heap<Entry>(16, Comparator.<Entry>reverseOrder());
+    frontier.insert(new Entry(0, 0));
+
+    while (!frontier.isEmpty()) {
+      Entry entry = frontier.removeBest();
+      int u = entry.vertex;
+      if (entry.distance > distances[u]) {
+        continue;
+      }
+      for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+        long candidate = entry.distance + graph.weights[e];
+        int v = graph.targets[e];
+        if (candidate < distances[v]) {
+          distances[v] = candidate;
+          frontier.insert(new Entry(candidate, v));
+        }
+      }
+    }
+    return distances;
+  }
+
+  private static long[] priorityQueue(Graph graph) {
+    long[] distances = new long[graph.vertices()];
+    Arrays.fill(distances, Long.MAX_VALUE);
+    distances[0] = 0;
+    PriorityQueue<Entry> frontier = new PriorityQueue<>();
+    frontier.add(new Entry(0, 0));
+
+    while (!frontier.isEmpty()) {
+      Entry entry = frontier.poll();
+      int u = entry.vertex;
+      if (entry.distance > distances[u]) {
+        continue;
+      }
+      for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+        long candidate = entry.distance + graph.weights[e];
+        int v = graph.targets[e];
+        if (candidate < distances[v]) {
+          distances[v] = candidate;
+          frontier.add(new Entry(candidate, v));
+        }
+      }
+    }
+    return distances;
+  }
+
+  private interface ShortestPaths {
+    long[] run(Graph graph);
+  }
+
+  private static long[] time(String name, ShortestPaths algorithm, Graph graph) {
+    long best = Long.MAX_VALUE;
+    long[] distances = null;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      distances = algorithm.run(graph);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    System.out.printf("  %-14s %8.1f ms%n", name, best / 1e6);
+    return distances;
+  }
+
+  public static void main(String[] args) {
+    int vertices = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+    int degree = (args.length > 1) ? Integer.parseInt(args[1]) : 8;
+    Random random = new Random(25);
+
+    for (int maxWeight : new int[] { 100, 1_000_000 }) {
+      Graph graph = new Graph(vertices, degree, maxWeight, random);
+      System.out.printf("%d vertices, %d edges, weights 1 .. %d%n", vertices, graph.targets.length, maxWeight);
+
+      long[] expected = time("PriorityQueue", RadixHeapBenchmark::priorityQueue, graph);
+      if (!Arrays.equals(expected, time("Heap", RadixHeapBenchmark::heap, graph))
+          || !Arrays.equals(expected, time("RadixHeap", RadixHeapBenchmark::radix, graph))) {
+        throw new AssertionError("Frontiers found different distances.");
+      }
+    }
+  }
+
+}
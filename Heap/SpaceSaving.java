@@ -0,0 +1,208 @@
+package DataStructures.PriorityQueueAndHeaps;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//***Key Application: The most frequent items (heavy hitters) of a stream of any length, using
+//a fixed number of counters (the Space-Saving algorithm of Metwally, Agrawal and El Abbadi)
+//
+//The sketch monitors at most `capacity` items, each with a counter:
+//    1. a monitored item       -- its counter is incremented
+//    2. a new item, free slot  -- it gets a counter of 1
+//    3. a new item, no slot    -- it takes over the counter of the least counted item, which
+//                                 is incremented; the old count is recorded as its error
+//
+//A counter therefore overestimates its item's true count by at most its error, and every
+//error is at most N / capacity, for a stream of N items. Any item with a true count above
+//N / capacity is guaranteed to be monitored.
+//
+//Structure: a map from each monitored item to its slot, and an IndexedHeap of the slots,
+//ordered by count with the smallest count at the root, so that the least counted item is
+//found in O(1) and a counter is updated in O(log capacity).
+//
+public class SpaceSaving<T> {
+
+  /**
+   * A monitored item with its estimated count and the maximum overestimate of that count.
+   */
+  public static final class Counter<T> {
+    private final T item;
+    private final long count;
+    private final long error;
+
+    private Counter(T item, long count, long error) {
+      this.item = item;
+      this.count = count;
+      this.error = error;
+    }
+
+    public T getItem() {
+      return item;
+    }
+
+    /**
+     * @return the estimated count, at least the true count
+     */
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * @return the largest amount by which getCount() may exceed the true count
+     */
+    public long getError() {
+      return error;
+    }
+
+    /**
+     * @return a count that the true count is guaranteed to reach, count - error
+     */
+    public long getGuaranteedCount() {
+      return count - error;
+    }
+
+    @Override public String toString() {
+      return item + "=" + count + (error > 0 ? " (+/-" + error + ")" : "");
+    }
+  }
+
+  private final int capacity;
+  private final Object[] items;
+  private final long[] errors;
+  private final Map<T, Integer> slots;
+  private final IndexedHeap<Long> counts; //slot -> count, smallest count at the root
+  private long total;
+
+  /**
+   * @param capacity - the number of counters; items more frequent than 1 / capacity of the
+   *                   stream are always found
+   */
+  public SpaceSaving(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be at least 1.");
+    }
+    this.capacity = capacity;
+    this.items = new Object[capacity];
+    this.errors = new long[capacity];
+    this.slots = new HashMap<>(capacity * 2);
+    this.counts = new IndexedHeap<Long>(capacity, Comparator.<Long>reverseOrder());
+  }
+
+  /**
+   * Counts one occurrence of an item.
+   *
+   * @param item - the item
+   */
+  public void offer(T item) {
+    offer(item, 1);
+  }
+
+  /**
+   * Counts the given number of occurrences of an item.
+   *
+   * @param item   - the item
+   * @param weight - the number of occurrences, at least 1
+   */
+  public void offer(T item, long weight) {
+    if (item == null) {
+      throw new NullPointerException("Items must not be null.");
+    }
+    if (weight < 1) {
+      throw new IllegalArgumentException("Weight must be at least 1.");
+    }
+    total += weight;
+
+    Integer slot = slots.get(item);
+    if (slot != null) {
+      counts.increaseKey(slot, counts.priorityOf(slot) + weight);
+      return;
+    }
+
+    if (slots.size() < capacity) {
+      slot = slots.size();
+      items[slot] = item;
+      errors[slot] = 0;
+      slots.put(item, slot);
+      counts.insert(slot, weight);
+      return;
+    }
+
+    //replace the least counted item, inheriting its count as the error
+    slot = counts.peekBest();
+    long minimum = counts.priorityOf(slot);
+    slots.remove(items[slot]);
+    items[slot] = item;
+    errors[slot] = minimum;
+    slots.put(item, slot);
+    counts.increaseKey(slot, minimum + weight);
+  }
+
+  /**
+   * @return the number of items counted, N
+   */
+  public long getTotal() {
+    return total;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns the estimated count of an item, which is at least its true count if the
+   * item is monitored, and 0 otherwise.
+   *
+   * @param item - the item
+   * @return the estimated count of the item
+   */
+  public long estimate(T item) {
+    Integer slot = slots.get(item);
+    return (slot == null) ? 0 : counts.priorityOf(slot);
+  }
+
+  /**
+   * Returns the monitored items, ordered from the highest estimated count.
+   *
+   * @param n - the largest number of items to return
+   * @return up to n counters
+   */
+  public List<Counter<T>> top(int n) {
+    List<Counter<T>> counters = counters();
+    return new ArrayList<>(counters.subList(0, Math.min(n, counters.size())));
+  }
+
+  /**
+   * Returns the items whose estimated count is above the given fraction of the stream,
+   * ordered from the highest estimated count. Every item whose true count is above
+   * that fraction is included, provided the fraction is at least 1 / capacity.
+   *
+   * @param fraction - a fraction of the stream, between 0 and 1
+   * @return the counters of the heavy hitters
+   */
+  public List<Counter<T>> heavyHitters(double fraction) {
+    List<Counter<T>> result = new ArrayList<>();
+    for (Counter<T> counter : counters()) {
+      if (counter.getCount() > fraction * total) {
+        result.add(counter);
+      }
+    }
+    return result;
+  }
+
+  @SuppressWarnings("unchecked") private List<Counter<T>> counters() {
+    List<Counter<T>> counters = new ArrayList<>(slots.size());
+    for (int slot = 0; slot < slots.size(); slot++) {
+      counters.add(new Counter<>((T) items[slot], counts.priorityOf(slot), errors[slot]));
+    }
+    counters.sort(Comparator.comparingLong((Counter<T> counter) -> counter.getCount()).reversed());
+    return counters;
+  }
+
+  @Override public String toString() {
+    return "SpaceSaving[capacity=" + capacity + ", total=" + total + ", top=" + top(10) + "]";
+  }
+
+}
@@ -0,0 +1,476 @@
+package DataStructures.PriorityQueueAndHeaps;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+//***Key Application: A delay queue for very many timeouts that are mostly cancelled before
+//they expire, e.g. request and idle timeouts -- O(1) schedule and cancel
+//
+//Structure (a hierarchical timer wheel): time is divided into ticks, and each level of the
+//wheel is a ring of 64 slots. A slot of level L spans 64^L ticks, so 4 levels cover 64^4
+//ticks (about 4.6 hours of 1 ms ticks). Each slot is a doubly linked list of timeouts.
+//    1. schedule -- a timeout d ticks away goes into the lowest level whose range covers d,
+//                   in the slot holding its deadline -- O(1)
+//    2. cancel   -- unlink the timeout from its slot -- O(1)
+//    3. advance  -- when the clock reaches a slot of level 0, its timeouts have expired; when
+//                   it reaches a slot of a higher level, its timeouts are cascaded down into
+//                   the lower levels. Each timeout cascades at most once per level.
+//Deadlines beyond the last level are kept in a Heap ordered by deadline (the overflow), and
+//enter the wheel once they come into range. Cancelling one of them only marks it; it is
+//dropped when it would have entered the wheel.
+//
+//A bitmap of the non-empty slots of each level lets the wheel skip straight to the next slot
+//that holds timeouts, so an idle wheel costs nothing and take() sleeps until that slot.
+//
+//Timing: a timeout never expires before its deadline, and expires within one tick after it.
+//
+//Threads: any thread can schedule and cancel. take() blocks until a timeout expires; as in
+//java.util.concurrent.DelayQueue, one waiting thread sleeps until the next deadline and the
+//others wait until it is taken. Blocking uses a ReentrantLock and Condition rather than
+//synchronized, so virtual threads blocked in take() do not pin their carrier thread.
+//drainExpired() takes every expired timeout under a single lock acquisition.
+//
+public class TimerWheel<T> {
+
+  private static final int SLOT_BITS = 6;
+  private static final int SLOTS = 1 << SLOT_BITS;
+  private static final int SLOT_MASK = SLOTS - 1;
+  private static final int NO_BUCKET = -1;
+  private static final int IN_OVERFLOW = -2;
+
+  /**
+   * A scheduled item, returned by schedule() as the handle used to cancel it.
+   */
+  public static final class Timeout<T> implements Comparable<Timeout<T>> {
+    private static final int PENDING = 0;
+    private static final int EXPIRED = 1;
+    private static final int CANCELLED = 2;
+
+    private final TimerWheel<T> wheel;
+    private final T item;
+    private final long deadlineTick;
+    private volatile int state;
+    private int bucket = NO_BUCKET; //the wheel slot or ready list holding the timeout
+    private Timeout<T> previous;
+    private Timeout<T> next;
+
+    private Timeout(TimerWheel<T> wheel, T item, long deadlineTick) {
+      this.wheel = wheel;
+      this.item = item;
+      this.deadlineTick = deadlineTick;
+    }
+
+    public T getItem() {
+      return item;
+    }
+
+    /**
+     * Cancels the timeout, so that its item is never returned by take(), poll() or
+     * drainExpired().
+     *
+     * @return true if the timeout was cancelled, false if it had already been taken
+     *         or cancelled
+     */
+    public boolean cancel() {
+      return wheel.cancel(this);
+    }
+
+    public boolean isCancelled() {
+      return state == CANCELLED;
+    }
+
+    /**
+     * @return true once the item has been returned by take(), poll() or drainExpired()
+     */
+    public boolean isExpired() {
+      return state == EXPIRED;
+    }
+
+    /**
+     * @param unit - the unit of the result
+     * @return the time left until the deadline, rounded to ticks; zero or negative once due
+     */
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(wheel.delayNanos(deadlineTick), TimeUnit.NANOSECONDS);
+    }
+
+    @Override public int compareTo(Timeout<T> other) {
+      return Long.compare(deadlineTick, other.deadlineTick);
+    }
+  }
+
+  private final long tickNanos;
+  private final int levels;
+  private final long span; //ticks covered by the wheel, later deadlines go to the overflow
+  private final LongSupplier clock;
+  private final long startNanos;
+
+  //sentinels of circular lists: slot s of level L at L * SLOTS + s, then the ready list
+  private final Timeout<T>[] buckets;
+  private final int ready;
+  private final long[] occupied; //per level, a bit for each non-empty slot
+  private final Heap<Timeout<T>> overflow;
+
+  private long currentTick;
+  private int size;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition available = lock.newCondition();
+  private Thread leader; //the thread waiting for the next deadline
+  private long leaderWakeTick;
+
+  /**
+   * Creates a wheel of 1 millisecond ticks and 4 levels.
+   */
+  public TimerWheel() {
+    this(1, TimeUnit.MILLISECONDS, 4);
+  }
+
+  /**
+   * @param tickDuration - the length of a tick, the precision of the deadlines
+   * @param unit         - the unit of tickDuration
+   * @param levels       - the number of levels, from 1 to 10; deadlines up to
+   *                       64^levels ticks away are kept in the wheel
+   */
+  public TimerWheel(long tickDuration, TimeUnit unit, int levels) {
+    this(unit.toNanos(tickDuration), levels, System::nanoTime);
+  }
+
+  /**
+   * Creates a wheel driven by the given clock, so that benchmarks and tests can
+   * advance time themselves.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  TimerWheel(long tickNanos, int levels, LongSupplier clock) {
+    if (tickNanos < 1) {
+      throw new IllegalArgumentException("Tick duration must be at least 1 nanosecond.");
+    }
+    if (levels < 1 || levels > 10) {
+      throw new IllegalArgumentException("Levels must be between 1 and 10.");
+    }
+    this.tickNanos = tickNanos;
+    this.levels = levels;
+    this.span = 1L << (levels * SLOT_BITS);
+    this.clock = clock;
+    this.startNanos = clock.getAsLong();
+
+    this.buckets = new Timeout[levels * SLOTS + 1];
+    for (int i = 0; i < buckets.length; i++) {
+      Timeout<T> sentinel = new Timeout<>(this, null, 0);
+      sentinel.previous = sentinel;
+      sentinel.next = sentinel;
+      buckets[i] = sentinel;
+    }
+    this.ready = levels * SLOTS;
+    this.occupied = new long[levels];
+    this.overflow = new Heap<Timeout<T>>(16, Comparator.<Timeout<T>>reverseOrder());
+  }
+
+  /**
+   * Schedules an item to expire after the given delay.
+   *
+   * @param item  - the item returned by take() once the delay has passed
+   * @param delay - the delay, zero or negative to expire at once
+   * @param unit  - the unit of the delay
+   * @return the handle of the timeout, used to cancel it
+   */
+  public Timeout<T> schedule(T item, long delay, TimeUnit unit) {
+    if (item == null) {
+      throw new NullPointerException("Items must not be null.");
+    }
+    long delayNanos = Math.max(0, unit.toNanos(delay));
+
+    lock.lock();
+    try {
+      long elapsed = clock.getAsLong() - startNanos;
+      long target = (delayNanos > Long.MAX_VALUE - elapsed) ? Long.MAX_VALUE : elapsed + delayNanos;
+      //round up, so that a timeout never expires before its deadline
+      long deadlineTick = target / tickNanos + ((target % tickNanos == 0) ? 0 : 1);
+
+      Timeout<T> timeout = new Timeout<>(this, item, deadlineTick);
+      place(timeout);
+      size++;
+      if (leader == null || deadlineTick < leaderWakeTick) {
+        leader = null;
+        available.signal();
+      }
+      return timeout;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean cancel(Timeout<T> timeout) {
+    lock.lock();
+    try {
+      if (timeout.state != Timeout.PENDING) {
+        return false;
+      }
+      timeout.state = Timeout.CANCELLED;
+      size--;
+      if (timeout.bucket >= 0) {
+        unlink(timeout);
+      }
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Takes the next expired item, waiting until one expires.
+   *
+   * @return the item of an expired timeout
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public T take() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      for (;;) {
+        advance(nowTick());
+        Timeout<T> timeout = pollReady();
+        if (timeout != null) {
+          return timeout.item;
+        }
+
+        long next = nextEventTick();
+        if (next == Long.MAX_VALUE || leader != null) {
+          available.await();
+        } else {
+          Thread thisThread = Thread.currentThread();
+          leader = thisThread;
+          leaderWakeTick = next;
+          try {
+            available.awaitNanos(delayNanos(next));
+          } finally {
+            if (leader == thisThread) {
+              leader = null;
+            }
+          }
+        }
+      }
+    } finally {
+      if (leader == null && size > 0) {
+        available.signal();
+      }
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Takes the next expired item, without waiting.
+   *
+   * @return the item of an expired timeout, or null if none has expired
+   */
+  public T poll() {
+    lock.lock();
+    try {
+      advance(nowTick());
+      Timeout<T> timeout = pollReady();
+      return (timeout == null) ? null : timeout.item;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Moves every expired item into the given collection, without waiting.
+   *
+   * @param sink - the collection to add the items to
+   * @return the number of items added
+   */
+  public int drainExpired(Collection<? super T> sink) {
+    return drainExpired(sink, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Moves up to maxItems expired items into the given collection, in order of
+   * deadline tick, without waiting.
+   *
+   * @param sink     - the collection to add the items to
+   * @param maxItems - the largest number of items to add
+   * @return the number of items added
+   */
+  public int drainExpired(Collection<? super T> sink, int maxItems) {
+    lock.lock();
+    try {
+      advance(nowTick());
+      int drained = 0;
+      Timeout<T> timeout;
+      while (drained < maxItems && (timeout = pollReady()) != null) {
+        sink.add(timeout.item);
+        drained++;
+      }
+      return drained;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the number of timeouts neither cancelled nor taken
+   */
+  public int size() {
+    lock.lock();
+    try {
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * @param unit - the unit of the result
+   * @return the length of a tick
+   */
+  public long getTickDuration(TimeUnit unit) {
+    return unit.convert(tickNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private long nowTick() {
+    return (clock.getAsLong() - startNanos) / tickNanos;
+  }
+
+  private long delayNanos(long tick) {
+    return tick * tickNanos - (clock.getAsLong() - startNanos);
+  }
+
+  /**
+   * Puts a timeout into the ready list, the wheel slot holding its deadline, or the
+   * overflow, depending on how far its deadline is from the current tick.
+   */
+  private void place(Timeout<T> timeout) {
+    long delta = timeout.deadlineTick - currentTick;
+    if (delta <= 0) {
+      link(timeout, ready);
+    } else if (delta >= span) {
+      timeout.bucket = IN_OVERFLOW;
+      overflow.insert(timeout);
+    } else {
+      int level = (63 - Long.numberOfLeadingZeros(delta)) / SLOT_BITS;
+      int slot = (int) (timeout.deadlineTick >>> (level * SLOT_BITS)) & SLOT_MASK;
+      link(timeout, level * SLOTS + slot);
+      occupied[level] |= 1L << slot;
+    }
+  }
+
+  private void link(Timeout<T> timeout, int bucket) {
+    Timeout<T> sentinel = buckets[bucket];
+    timeout.bucket = bucket;
+    timeout.previous = sentinel.previous;
+    timeout.next = sentinel;
+    sentinel.previous.next = timeout;
+    sentinel.previous = timeout;
+  }
+
+  private void unlink(Timeout<T> timeout) {
+    int bucket = timeout.bucket;
+    timeout.previous.next = timeout.next;
+    timeout.next.previous = timeout.previous;
+    timeout.previous = null;
+    timeout.next = null;
+    timeout.bucket = NO_BUCKET;
+
+    Timeout<T> sentinel = buckets[bucket];
+    if (bucket != ready && sentinel.next == sentinel) {
+      occupied[bucket >>> SLOT_BITS] &= ~(1L << (bucket & SLOT_MASK));
+    }
+  }
+
+  private Timeout<T> pollReady() {
+    Timeout<T> sentinel = buckets[ready];
+    if (sentinel.next == sentinel) {
+      return null;
+    }
+    Timeout<T> timeout = sentinel.next;
+    unlink(timeout);
+    timeout.state = Timeout.EXPIRED;
+    size--;
+    return timeout;
+  }
+
+  /**
+   * Returns the next tick after the current one at which a slot holding timeouts is
+   * reached or an overflow deadline comes into range, or Long.MAX_VALUE if there is none.
+   */
+  private long nextEventTick() {
+    long next = Long.MAX_VALUE;
+    for (int level = 0; level < levels; level++) {
+      if (occupied[level] != 0) {
+        int shift = level * SLOT_BITS;
+        long base = currentTick >>> shift;
+        //the slots of a level hold the deadlines base + 1 .. base + 64, in rotated order
+        long slots = Long.rotateRight(occupied[level], (int) ((base + 1) & SLOT_MASK));
+        next = Math.min(next, (base + 1 + Long.numberOfTrailingZeros(slots)) << shift);
+      }
+    }
+    if (!overflow.isEmpty()) {
+      next = Math.min(next, overflow.peekBest().deadlineTick - span + 1);
+    }
+    return next;
+  }
+
+  /**
+   * Moves the wheel forward to the given tick, jumping between the ticks that have
+   * something to do.
+   */
+  private void advance(long nowTick) {
+    while (currentTick < nowTick) {
+      currentTick = Math.min(nextEventTick(), nowTick);
+      processTick(currentTick);
+    }
+  }
+
+  private void processTick(long tick) {
+    while (!overflow.isEmpty()
+        && (overflow.peekBest().isCancelled() || overflow.peekBest().deadlineTick - tick < span)) {
+      Timeout<T> timeout = overflow.removeBest();
+      timeout.bucket = NO_BUCKET;
+      if (!timeout.isCancelled()) {
+        place(timeout);
+      }
+    }
+
+    //cascade from the top, so that timeouts can move down more than one level
+    for (int level = levels - 1; level >= 0; level--) {
+      int shift = level * SLOT_BITS;
+      if ((tick & ((1L << shift) - 1)) == 0) {
+        int slot = (int) (tick >>> shift) & SLOT_MASK;
+        if ((occupied[level] & (1L << slot)) != 0) {
+          cascade(level * SLOTS + slot);
+        }
+      }
+    }
+  }
+
+  /**
+   * Empties a slot and places each of its timeouts again, relative to the current tick.
+   * The timeouts of a level 0 slot are due and go to the ready list.
+   */
+  private void cascade(int bucket) {
+    Timeout<T> sentinel = buckets[bucket];
+    Timeout<T> timeout = sentinel.next;
+    sentinel.previous = sentinel;
+    sentinel.next = sentinel;
+    occupied[bucket >>> SLOT_BITS] &= ~(1L << (bucket & SLOT_MASK));
+
+    while (timeout != sentinel) {
+      Timeout<T> next = timeout.next;
+      place(timeout);
+      timeout = next;
+    }
+  }
+
+  @Override public String toString() {
+    return "TimerWheel[size=" + size() + ", tick=" + tickNanos + "ns, levels=" + levels + "]";
+  }
+
+}
@@ -0,0 +1,148 @@
+package DataStructures.PriorityQueueAndHeaps;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares TimerWheel with a Heap of deadlines on a request timeout trace, driven by a
+ * simulated clock that advances 1 ms per step. Each step schedules a batch of timeouts of
+ * 100 ms to 30 s, cancels 90% of the timeouts scheduled 50 steps earlier (the requests that
+ * completed in time), and drains the expired ones.
+ *
+ * Heap cannot remove an arbitrary item, so the Heap baseline marks a cancelled deadline and
+ * skips it when it reaches the root; cancelled deadlines stay in the heap until then. The
+ * benchmark reports the time per timeout and the largest number of entries each structure
+ * held.
+ *
+ * Run with: java DataStructures.PriorityQueueAndHeaps.TimerWheelBenchmark [timeouts per step]
+ *
+ * @author Patrick Harvey
+ */
+public class TimerWheelBenchmark {
+
+  private static final int ROUNDS = 5;
+  private static final int STEPS = 60_000;
+  private static final int CANCEL_AFTER = 50;
+  private static final long STEP_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private static final class Deadline implements Comparable<Deadline> {
+    final long nanos;
+    boolean cancelled;
+
+    Deadline(long nanos) {
+      this.nanos = nanos;
+    }
+
+    @Override public int compareTo(Deadline other) {
+      return Long.compare(nanos, other.nanos);
+    }
+  }
+
+  /**
+   * The delay of each timeout, in nanoseconds, grouped by step.
+   */
+  private static long[] delays(int perStep, Random random) {
+    long[] delays = new long[STEPS * perStep];
+    for (int i = 0; i < delays.length; i++) {
+      delays[i] = TimeUnit.MILLISECONDS.toNanos(100 + random.nextInt(29_900));
+    }
+    return delays;
+  }
+
+  private static boolean[] cancels(int count, Random random) {
+    boolean[] cancels = new boolean[count];
+    for (int i = 0; i < count; i++) {
+      cancels[i] = random.nextInt(10) != 0;
+    }
+    return cancels;
+  }
+
+  private static long[] runHeap(long[] delays, boolean[] cancels, int perStep) {
+    Heap<Deadline> heap = new Heap<Deadline>(16, Comparator.<Deadline>reverseOrder());
+    Deadline[] handles = new Deadline[delays.length];
+    long expired = 0;
+    long peak = 0;
+    long now = 0;
+
+    for (int step = 0; step < STEPS; step++) {
+      now += STEP_NANOS;
+      for (int i = step * perStep; i < (step + 1) * perStep; i++) {
+        handles[i] = new Deadline(now + delays[i]);
+        heap.insert(handles[i]);
+      }
+      if (step >= CANCEL_AFTER) {
+        for (int i = (step - CANCEL_AFTER) * perStep; i < (step - CANCEL_AFTER + 1) * perStep; i++) {
+          if (cancels[i]) {
+            handles[i].cancelled = true;
+          }
+        }
+      }
+      while (!heap.isEmpty() && heap.peekBest().nanos <= now) {
+        if (!heap.removeBest().cancelled) {
+          expired++;
+        }
+      }
+      peak = Math.max(peak, heap.size());
+    }
+    return new long[] { expired, peak };
+  }
+
+  private static long[] runWheel(long[] delays, boolean[] cancels, int perStep) {
+    long[] now = { 0 };
+    TimerWheel<Integer> wheel = new TimerWheel<>(STEP_NANOS, 4, () -> now[0]);
+    List<TimerWheel.Timeout<Integer>> handles = new ArrayList<>(delays.length);
+    List<Integer> drained = new ArrayList<>();
+    long expired = 0;
+    long peak = 0;
+
+    for (int step = 0; step < STEPS; step++) {
+      now[0] += STEP_NANOS;
+      for (int i = step * perStep; i < (step + 1) * perStep; i++) {
+        handles.add(wheel.schedule(i, delays[i], TimeUnit.NANOSECONDS));
+      }
+      if (step >= CANCEL_AFTER) {
+        for (int i = (step - CANCEL_AFTER) * perStep; i < (step - CANCEL_AFTER + 1) * perStep; i++) {
+          if (cancels[i]) {
+            handles.get(i).cancel();
+          }
+        }
+      }
+      drained.clear();
+      expired += wheel.drainExpired(drained);
+      peak = Math.max(peak, wheel.size());
+    }
+    return new long[] { expired, peak };
+  }
+
+  private interface Run {
+    long[] apply(long[] delays, boolean[] cancels, int perStep);
+  }
+
+  private static void time(String name, Run run, long[] delays, boolean[] cancels, int perStep) {
+    long best = Long.MAX_VALUE;
+    long[] result = null;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      result = run.apply(delays, cancels, perStep);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    System.out.printf("%-10s %8.1f ns/timeout   expired %9d   peak entries %9d%n",
+        name, (double) best / delays.length, result[0], result[1]);
+  }
+
+  public static void main(String[] args) {
+    int perStep = (args.length > 0) ? Integer.parseInt(args[0]) : 20;
+    Random random = new Random(24);
+    long[] delays = delays(perStep, random);
+    boolean[] cancels = cancels(delays.length, random);
+
+    System.out.printf("%d timeouts, %d per 1 ms step, 90%% cancelled after %d ms%n",
+        delays.length, perStep, CANCEL_AFTER);
+    time("Heap", TimerWheelBenchmark::runHeap, delays, cancels, perStep);
+    time("TimerWheel", TimerWheelBenchmark::runWheel, delays, cancels, perStep);
+  }
+
+}
@@ -0,0 +1,144 @@
+package DataStructures.PriorityQueueAndHeaps;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collector;
+
+//***Key Application: The K best items of a stream of any length, e.g. the top 100 by score,
+//in O(K) memory
+//
+//The kept items are held in a Heap ordered in reverse, so that the root is the worst of the
+//K best items seen so far. A new item that is not better than the root is rejected with
+//that one comparison; otherwise it replaces the root with a single percolate down.
+//
+//    offer      -- O(1) to reject, O(log K) to accept
+//    collector  -- a java.util.stream Collector, e.g. stream.collect(TopK.collector(100, byScore));
+//                  partial results of a parallel stream are merged
+//
+//Ordering: the best items are the greatest by the comparator (natural order by default).
+//
+public class TopK<T extends Comparable<T>> {
+
+  private final int k;
+  private final Comparator<? super T> comparator;
+  private final Heap<T> heap; //root = the worst kept item
+
+  /**
+   * Keeps the k greatest items by natural order.
+   *
+   * @param k - the number of items to keep
+   */
+  public TopK(int k) {
+    this(k, Comparator.naturalOrder());
+  }
+
+  /**
+   * @param k          - the number of items to keep
+   * @param comparator - the ordering of the items, whose greatest are kept
+   */
+  public TopK(int k, Comparator<? super T> comparator) {
+    if (k < 1) {
+      throw new IllegalArgumentException("K must be at least 1.");
+    }
+    this.k = k;
+    this.comparator = comparator;
+    this.heap = new Heap<T>(k, comparator.reversed());
+  }
+
+  /**
+   * Returns a Collector that collects the k greatest items of a stream, by the given
+   * comparator, into a list ordered from best to worst.
+   *
+   * @param k          - the number of items to keep
+   * @param comparator - the ordering of the items, whose greatest are kept
+   * @return the collector
+   */
+  public static <T extends Comparable<T>> Collector<T, ?, List<T>> collector(int k, Comparator<? super T> comparator) {
+    return Collector.of(
+        () -> new TopK<T>(k, comparator),
+        TopK::offer,
+        (left, right) -> {
+          left.merge(right);
+          return left;
+        },
+        TopK::toList);
+  }
+
+  /**
+   * Returns a Collector that collects the k greatest items of a stream, by natural
+   * order, into a list ordered from best to worst.
+   *
+   * @param k - the number of items to keep
+   * @return the collector
+   */
+  public static <T extends Comparable<T>> Collector<T, ?, List<T>> collector(int k) {
+    return collector(k, Comparator.<T>naturalOrder());
+  }
+
+  public int size() {
+    return heap.size();
+  }
+
+  public int getK() {
+    return k;
+  }
+
+  /**
+   * Offers an item, which is kept if it is among the k best so far.
+   *
+   * @param item - the item to offer
+   * @return true if the item is kept, false if it was rejected
+   */
+  public boolean offer(T item) {
+    if (heap.size() < k) {
+      heap.insert(item);
+      return true;
+    }
+    if (comparator.compare(item, heap.peekBest()) <= 0) {
+      return false;
+    }
+    heap.replaceBest(item);
+    return true;
+  }
+
+  /**
+   * Returns the worst of the kept items, which a new item must beat once k items are kept.
+   *
+   * @return the worst kept item, or null if none are kept
+   */
+  public T threshold() {
+    return heap.peekBest();
+  }
+
+  /**
+   * Offers every item kept by another TopK.
+   *
+   * @param other - the other TopK
+   */
+  @SuppressWarnings("unchecked") public void merge(TopK<T> other) {
+    for (int i = 0; i < other.heap.size(); i++) {
+      offer((T) other.heap.heap[i]);
+    }
+  }
+
+  /**
+   * Returns the kept items, ordered from best to worst. The TopK is not changed.
+   *
+   * @return a new list of the kept items
+   */
+  @SuppressWarnings("unchecked") public List<T> toList() {
+    List<T> items = new ArrayList<>(heap.size());
+    for (int i = 0; i < heap.size(); i++) {
+      items.add((T) heap.heap[i]);
+    }
+    items.sort(Collections.reverseOrder(comparator));
+    return items;
+  }
+
+  @Override public String toString() {
+    return toList().toString();
+  }
+
+}
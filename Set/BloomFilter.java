@@ -0,0 +1,205 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A Bloom filter: a probabilistic set that answers contains() with no false negatives
+ * and a configurable rate of false positives, in a fraction of the memory of an exact set.
+ *
+ * Each element sets numHashes bits of a bit array kept in a long[]. The bit positions
+ * come from double hashing two halves of a mixed 64 bit hash of the element's
+ * hashCode(). contains() reports true if all of them are set. Elements cannot be
+ * removed, since their bits may be shared with other elements.
+ *
+ * Sized for n expected elements and a false positive rate p, the filter uses
+ * m = -n ln(p) / (ln 2)^2 bits and k = (m / n) ln 2 hash functions. That is about
+ * 9.6 bits per element for a 1% rate, and 14.4 bits for 0.1%.
+ *
+ * @param <T> the type of the elements added to the filter
+ * @author Patrick Harvey
+ */
+public class BloomFilter<T> implements SetADT<T> {
+
+    private static final int MAGIC = 0x424C4D31; // "BLM1"
+
+    private final long[] words;
+    private final long bitCount;
+    private final int numHashes;
+
+    /**
+     * Creates a filter sized for the given number of elements and false positive rate.
+     * @param expectedInsertions - the number of elements expected to be added
+     * @param falsePositiveRate - the desired false positive rate, between 0 and 1
+     * @throws IllegalArgumentException if either argument is out of range
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive.");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1.");
+        }
+
+        double bits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long wordCount = Math.max(1, (long) Math.ceil(bits / 64));
+        if (wordCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Filter would be too large.");
+        }
+
+        this.words = new long[(int) wordCount];
+        this.bitCount = wordCount * 64;
+        this.numHashes = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    private BloomFilter(long[] words, int numHashes) {
+        this.words = words;
+        this.bitCount = (long) words.length * 64;
+        this.numHashes = numHashes;
+    }
+
+    /**
+     * Returns the step between the bit positions of an element, the high half of its
+     * hash forced odd. A step of 0 would give every position the same bit, and an even
+     * step shares the factor 2 with the number of bits, so it would reach only half of them.
+     */
+    private static int step(long hash) {
+        return (int) (hash >>> 32) | 1;
+    }
+
+    /**
+     * Add a new element to the filter.
+     * @param el the new element to add to the filter
+     * @return true if any bit changed, that is, if the element was definitely not in the
+     *         filter before; false if it may already have been added
+     * @throws IllegalArgumentException if the new element passed to the method is null
+     */
+    public boolean add(T el) {
+        if (el == null) throw new IllegalArgumentException("You cannot add a null element to this set.");
+
+        long hash = Hashing.hash64(el);
+        int h1 = (int) hash;
+        int h2 = step(hash);
+        boolean changed = false;
+
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            long before = words[(int) (bit >>> 6)];
+            words[(int) (bit >>> 6)] = before | (1L << bit);
+            changed |= before != words[(int) (bit >>> 6)];
+        }
+        return changed;
+    }
+
+    /**
+     * Return true if the element may be in the filter, false if it is definitely not.
+     * @param el the element to check for
+     * @return false if the element was never added, true if it probably was
+     */
+    public boolean contains(T el) {
+        if (el == null) {
+            return false;
+        }
+
+        long hash = Hashing.hash64(el);
+        int h1 = (int) hash;
+        int h2 = step(hash);
+
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bloom filters do not support removal, since the bits of an element may be
+     * shared with other elements.
+     * @throws UnsupportedOperationException always
+     */
+    public boolean remove(T el) {
+        throw new UnsupportedOperationException("Elements cannot be removed from a Bloom filter.");
+    }
+
+    /**
+     * Adds every element of another filter to this one. Both filters must have been
+     * created with the same parameters.
+     * @param other - the filter to merge into this one
+     * @throws IllegalArgumentException if the filters have different parameters
+     */
+    public void merge(BloomFilter<T> other) {
+        if (other.words.length != words.length || other.numHashes != numHashes) {
+            throw new IllegalArgumentException("Only filters created with the same parameters can be merged.");
+        }
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    /**
+     * Returns the false positive rate expected from the current number of set bits.
+     * @return the current expected false positive rate
+     */
+    public double expectedFalsePositiveRate() {
+        long set = 0;
+        for (long word : words) {
+            set += Long.bitCount(word);
+        }
+        return Math.pow((double) set / bitCount, numHashes);
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    /**
+     * Writes the filter to the given stream. The format is the int magic number
+     * "BLM1", the int number of hash functions, the int number of words, and then
+     * each long word, all big endian.
+     * @param out - the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(numHashes);
+        data.writeInt(words.length);
+        for (long word : words) {
+            data.writeLong(word);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a filter written by writeTo().
+     * @param in - the stream to read from
+     * @return the filter that was written
+     * @throws IOException if the stream cannot be read or does not hold a Bloom filter
+     */
+    public static <T> BloomFilter<T> readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Stream does not hold a Bloom filter.");
+        }
+
+        int numHashes = data.readInt();
+        int wordCount = data.readInt();
+        if (numHashes <= 0 || wordCount <= 0) {
+            throw new IOException("Corrupt Bloom filter header.");
+        }
+
+        long[] words = new long[wordCount];
+        for (int i = 0; i < wordCount; i++) {
+            words[i] = data.readLong();
+        }
+        return new BloomFilter<>(words, numHashes);
+    }
+
+}
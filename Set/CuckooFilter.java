@@ -0,0 +1,412 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A cuckoo filter: a probabilistic set that answers contains() with no false negatives
+ * and a configurable rate of false positives, and that, unlike a Bloom filter, supports
+ * remove().
+ *
+ * Each element is reduced to a small fingerprint that is stored in one of two candidate
+ * buckets of four slots. The second bucket is found from the first bucket and the
+ * fingerprint alone (i2 = i1 ^ hash(fingerprint)), so a fingerprint can be moved to its
+ * other bucket without knowing the element. When both buckets are full, add() evicts a
+ * resident fingerprint to its other bucket, like cuckoo hashing. If that fails after
+ * MAX_KICKS moves, the last evicted fingerprint is kept in a one entry stash, and the
+ * filter is full: further add() calls throw an IllegalStateException.
+ *
+ * The slots are packed fingerprintBits apiece into a long[]. A filter with false
+ * positive rate p uses about log2(8 / p) / 0.95 bits per element, e.g. 12.6 bits
+ * for a 0.1% rate.
+ *
+ * Like a multiset, adding an element twice stores its fingerprint twice, so removing an
+ * element that was added never removes the fingerprint of another element that happens
+ * to share it. A pair of buckets holds at most MAX_COPIES copies of one fingerprint;
+ * add() returns false once that is reached. Only remove an element as many times as
+ * add() returned true for it.
+ *
+ * @param <T> the type of the elements added to the filter
+ * @author Patrick Harvey
+ */
+public class CuckooFilter<T> implements SetADT<T> {
+
+    private static final int MAGIC = 0x434B4F31; // "CKO1"
+    private static final int SLOTS_PER_BUCKET = 4;
+    private static final double MAX_LOAD = 0.95;
+    private static final int MAX_KICKS = 500;
+    private static final int MAX_COPIES = 2 * SLOTS_PER_BUCKET;
+
+    private final int fingerprintBits;
+    private final int fingerprintMask;
+    private final int bucketMask;
+    private final long[] words;
+    private long count;
+
+    // the stash holding the fingerprint that could not be placed, if the filter is full
+    private boolean hasVictim;
+    private int victimIndex;
+    private int victimFingerprint;
+
+    private int kickSeed = 0x2545F491;
+
+    /**
+     * Creates a filter sized for the given number of elements and false positive rate.
+     * @param expectedInsertions - the number of elements expected to be added
+     * @param falsePositiveRate - the desired false positive rate, between 0 and 1
+     * @throws IllegalArgumentException if either argument is out of range
+     */
+    public CuckooFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive.");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1.");
+        }
+
+        // a lookup compares 2 * SLOTS_PER_BUCKET fingerprints, each matching with chance 2^-f
+        int bits = (int) Math.ceil(Math.log(2.0 * SLOTS_PER_BUCKET / falsePositiveRate) / Math.log(2));
+        long buckets = Math.max(2, (long) Math.ceil(expectedInsertions / (SLOTS_PER_BUCKET * MAX_LOAD)));
+        buckets = Long.highestOneBit(buckets - 1) << 1;
+        if (buckets > (1 << 30)) {
+            throw new IllegalArgumentException("Filter would be too large.");
+        }
+
+        this.fingerprintBits = Math.max(4, Math.min(16, bits));
+        this.fingerprintMask = (1 << fingerprintBits) - 1;
+        this.bucketMask = (int) buckets - 1;
+        this.words = new long[(int) ((buckets * SLOTS_PER_BUCKET * fingerprintBits + 63) / 64)];
+    }
+
+    private CuckooFilter(int fingerprintBits, int bucketCount, long[] words) {
+        this.fingerprintBits = fingerprintBits;
+        this.fingerprintMask = (1 << fingerprintBits) - 1;
+        this.bucketMask = bucketCount - 1;
+        this.words = words;
+    }
+
+    /**
+     * Returns the fingerprint of a hash. 0 marks an empty slot, so it is never used.
+     */
+    private int fingerprint(long hash) {
+        int fingerprint = (int) (hash >>> 32) & fingerprintMask;
+        return (fingerprint == 0) ? 1 : fingerprint;
+    }
+
+    private int alternateIndex(int index, int fingerprint) {
+        return (index ^ (fingerprint * 0x5BD1E995)) & bucketMask;
+    }
+
+    /**
+     * Reads the fingerprint in the given slot of the packed slot array.
+     */
+    private int getSlot(int bucket, int slot) {
+        long position = ((long) bucket * SLOTS_PER_BUCKET + slot) * fingerprintBits;
+        int word = (int) (position >>> 6);
+        int offset = (int) (position & 63);
+
+        long value = words[word] >>> offset;
+        if (offset + fingerprintBits > 64) {
+            value |= words[word + 1] << (64 - offset);
+        }
+        return (int) value & fingerprintMask;
+    }
+
+    /**
+     * Writes a fingerprint into the given slot of the packed slot array.
+     */
+    private void setSlot(int bucket, int slot, int fingerprint) {
+        long position = ((long) bucket * SLOTS_PER_BUCKET + slot) * fingerprintBits;
+        int word = (int) (position >>> 6);
+        int offset = (int) (position & 63);
+
+        words[word] = (words[word] & ~((long) fingerprintMask << offset)) | ((long) fingerprint << offset);
+        if (offset + fingerprintBits > 64) {
+            int shift = 64 - offset;
+            words[word + 1] = (words[word + 1] & ~((long) fingerprintMask >>> shift)) | ((long) fingerprint >>> shift);
+        }
+    }
+
+    private boolean insertIntoBucket(int bucket, int fingerprint) {
+        for (int slot = 0; slot < SLOTS_PER_BUCKET; slot++) {
+            if (getSlot(bucket, slot) == 0) {
+                setSlot(bucket, slot, fingerprint);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean bucketContains(int bucket, int fingerprint) {
+        for (int slot = 0; slot < SLOTS_PER_BUCKET; slot++) {
+            if (getSlot(bucket, slot) == fingerprint) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int countInBucket(int bucket, int fingerprint) {
+        int copies = 0;
+        for (int slot = 0; slot < SLOTS_PER_BUCKET; slot++) {
+            if (getSlot(bucket, slot) == fingerprint) {
+                copies++;
+            }
+        }
+        return copies;
+    }
+
+    /**
+     * Returns true if the pair of buckets starting at index cannot take another copy of
+     * the fingerprint: it holds MAX_COPIES copies, counting the stash, or all the slots
+     * of its single bucket when both indexes are the same.
+     */
+    private boolean copiesFull(int index, int fingerprint) {
+        int alternate = alternateIndex(index, fingerprint);
+        int copies = countInBucket(index, fingerprint);
+        if (alternate != index) {
+            copies += countInBucket(alternate, fingerprint);
+        }
+        if (hasVictim && victimFingerprint == fingerprint && (victimIndex == index || victimIndex == alternate)) {
+            copies++;
+        }
+        return copies >= ((alternate == index) ? SLOTS_PER_BUCKET : MAX_COPIES);
+    }
+
+    private boolean deleteFromBucket(int bucket, int fingerprint) {
+        for (int slot = 0; slot < SLOTS_PER_BUCKET; slot++) {
+            if (getSlot(bucket, slot) == fingerprint) {
+                setSlot(bucket, slot, 0);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Places a fingerprint in its bucket or its alternate bucket, evicting other
+     * fingerprints if both are full. The fingerprint left over after MAX_KICKS
+     * evictions goes into the stash, which must be empty.
+     */
+    private void insertFingerprint(int index, int fingerprint) {
+        if (insertIntoBucket(index, fingerprint)) {
+            return;
+        }
+        index = alternateIndex(index, fingerprint);
+        if (insertIntoBucket(index, fingerprint)) {
+            return;
+        }
+
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            // xorshift to pick the slot to evict
+            kickSeed ^= kickSeed << 13;
+            kickSeed ^= kickSeed >>> 17;
+            kickSeed ^= kickSeed << 5;
+            int slot = kickSeed & (SLOTS_PER_BUCKET - 1);
+
+            int evicted = getSlot(index, slot);
+            setSlot(index, slot, fingerprint);
+            fingerprint = evicted;
+            index = alternateIndex(index, fingerprint);
+            if (insertIntoBucket(index, fingerprint)) {
+                return;
+            }
+        }
+
+        hasVictim = true;
+        victimIndex = index;
+        victimFingerprint = fingerprint;
+    }
+
+    /**
+     * Add a new element to the filter. Adding an element that is already in the
+     * filter stores another copy of its fingerprint, up to MAX_COPIES copies.
+     * @param el the new element to add to the filter
+     * @return true if a fingerprint of the element has been stored, false if its buckets
+     *         already hold MAX_COPIES copies of it, in which case nothing was stored
+     * @throws IllegalArgumentException if the new element passed to the method is null
+     * @throws IllegalStateException if the filter is full
+     */
+    public boolean add(T el) {
+        if (el == null) throw new IllegalArgumentException("You cannot add a null element to this set.");
+        if (hasVictim) throw new IllegalStateException("The cuckoo filter is full.");
+
+        long hash = Hashing.hash64(el);
+        int index = (int) hash & bucketMask;
+        int fingerprint = fingerprint(hash);
+        if (copiesFull(index, fingerprint)) {
+            return false;
+        }
+        insertFingerprint(index, fingerprint);
+        count++;
+        return true;
+    }
+
+    /**
+     * Return true if the element may be in the filter, false if it is definitely not.
+     * @param el the element to check for
+     * @return false if the element is not in the filter, true if it probably is
+     */
+    public boolean contains(T el) {
+        if (el == null) {
+            return false;
+        }
+
+        long hash = Hashing.hash64(el);
+        int fingerprint = fingerprint(hash);
+        int index = (int) hash & bucketMask;
+        int alternate = alternateIndex(index, fingerprint);
+
+        return bucketContains(index, fingerprint) || bucketContains(alternate, fingerprint)
+            || (hasVictim && victimFingerprint == fingerprint && (victimIndex == index || victimIndex == alternate));
+    }
+
+    /**
+     * Remove one copy of an element that was added to the filter.
+     * @param el the element to remove from the filter
+     * @return true if a fingerprint of the element has been removed, false if it was not in the filter
+     */
+    public boolean remove(T el) {
+        if (el == null) {
+            return false;
+        }
+
+        long hash = Hashing.hash64(el);
+        int fingerprint = fingerprint(hash);
+        int index = (int) hash & bucketMask;
+        int alternate = alternateIndex(index, fingerprint);
+
+        if (hasVictim && victimFingerprint == fingerprint && (victimIndex == index || victimIndex == alternate)) {
+            hasVictim = false;
+        } else if (!deleteFromBucket(index, fingerprint) && !deleteFromBucket(alternate, fingerprint)) {
+            return false;
+        } else if (hasVictim) {
+            // a slot is free again, so try to move the stashed fingerprint back into the table
+            hasVictim = false;
+            insertFingerprint(victimIndex, victimFingerprint);
+        }
+        count--;
+        return true;
+    }
+
+    /**
+     * Adds every fingerprint of another filter to this one, including those this filter
+     * already holds, so that every element added to either filter can still be removed.
+     * Both filters must have been created with the same parameters.
+     * @param other - the filter to merge into this one
+     * @throws IllegalArgumentException if the filters have different parameters
+     * @throws IllegalStateException if this filter fills up during the merge, or a pair
+     *         of buckets would hold more than MAX_COPIES copies of one fingerprint, in
+     *         which case only part of the other filter has been added
+     */
+    public void merge(CuckooFilter<T> other) {
+        if (other.fingerprintBits != fingerprintBits || other.bucketMask != bucketMask) {
+            throw new IllegalArgumentException("Only filters created with the same parameters can be merged.");
+        }
+
+        for (int bucket = 0; bucket <= bucketMask; bucket++) {
+            for (int slot = 0; slot < SLOTS_PER_BUCKET; slot++) {
+                int fingerprint = other.getSlot(bucket, slot);
+                if (fingerprint != 0) {
+                    mergeFingerprint(bucket, fingerprint);
+                }
+            }
+        }
+        if (other.hasVictim) {
+            mergeFingerprint(other.victimIndex, other.victimFingerprint);
+        }
+    }
+
+    private void mergeFingerprint(int bucket, int fingerprint) {
+        if (hasVictim) throw new IllegalStateException("The cuckoo filter is full.");
+        if (copiesFull(bucket, fingerprint)) {
+            throw new IllegalStateException("Too many copies of one fingerprint to merge.");
+        }
+        insertFingerprint(bucket, fingerprint);
+        count++;
+    }
+
+    /**
+     * Returns the number of fingerprints stored in the filter.
+     * @return the number of elements added and not removed
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Returns the fraction of slots in use.
+     * @return the load factor of the filter
+     */
+    public double getLoadFactor() {
+        return (double) count / ((long) (bucketMask + 1) * SLOTS_PER_BUCKET);
+    }
+
+    public int getFingerprintBits() {
+        return fingerprintBits;
+    }
+
+    /**
+     * Writes the filter to the given stream. The format is the int magic number
+     * "CKO1", the int fingerprint width, the int bucket count, the long element count,
+     * the stash (a boolean, then its int bucket and int fingerprint), the int number
+     * of words, and then each long word, all big endian.
+     * @param out - the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(fingerprintBits);
+        data.writeInt(bucketMask + 1);
+        data.writeLong(count);
+        data.writeBoolean(hasVictim);
+        data.writeInt(victimIndex);
+        data.writeInt(victimFingerprint);
+        data.writeInt(words.length);
+        for (long word : words) {
+            data.writeLong(word);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a filter written by writeTo().
+     * @param in - the stream to read from
+     * @return the filter that was written
+     * @throws IOException if the stream cannot be read or does not hold a cuckoo filter
+     */
+    public static <T> CuckooFilter<T> readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Stream does not hold a cuckoo filter.");
+        }
+
+        int fingerprintBits = data.readInt();
+        int bucketCount = data.readInt();
+        long count = data.readLong();
+        boolean hasVictim = data.readBoolean();
+        int victimIndex = data.readInt();
+        int victimFingerprint = data.readInt();
+        int wordCount = data.readInt();
+
+        if (fingerprintBits < 4 || fingerprintBits > 16 || bucketCount < 2 || Integer.bitCount(bucketCount) != 1
+            || wordCount != (int) (((long) bucketCount * SLOTS_PER_BUCKET * fingerprintBits + 63) / 64)) {
+            throw new IOException("Corrupt cuckoo filter header.");
+        }
+
+        long[] words = new long[wordCount];
+        for (int i = 0; i < wordCount; i++) {
+            words[i] = data.readLong();
+        }
+
+        CuckooFilter<T> filter = new CuckooFilter<>(fingerprintBits, bucketCount, words);
+        filter.count = count;
+        filter.hasVictim = hasVictim;
+        filter.victimIndex = victimIndex;
+        filter.victimFingerprint = victimFingerprint;
+        return filter;
+    }
+
+}
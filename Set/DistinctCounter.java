@@ -0,0 +1,114 @@
+/**
+ * Counts the distinct elements of a stream. The count is exact while there are few of
+ * them, and switches to an estimate once there are many.
+ *
+ * Elements are first collected in a MyHashSet, whose size is the exact count. When the
+ * set grows past the threshold, its elements are added to a HyperLogLog sketch and the
+ * set is dropped. From then on the counter uses the sketch's fixed memory and returns
+ * its estimate.
+ *
+ * @param <T> the type of the elements counted
+ * @author Patrick Harvey
+ */
+public class DistinctCounter<T> {
+
+    private final int threshold;
+    private final int precision;
+    private MyHashSet<T> exact;
+    private HyperLogLog<T> sketch;
+
+    /**
+     * Creates a counter that switches to a sketch of the default precision after
+     * 10000 distinct elements.
+     */
+    public DistinctCounter() {
+        this(10000, HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    /**
+     * Creates a counter that is exact up to the given number of distinct elements.
+     * @param threshold - the largest count kept exactly
+     * @param precision - the precision of the sketch used past the threshold
+     * @throws IllegalArgumentException if the threshold is negative or the precision is out of range
+     */
+    public DistinctCounter(int threshold, int precision) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative.");
+        }
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision must be between 4 and 18.");
+        }
+
+        this.threshold = threshold;
+        this.precision = precision;
+        this.exact = new MyHashSet<>();
+    }
+
+    /**
+     * Counts an element.
+     * @param el - the element to count
+     * @throws IllegalArgumentException if the element is null
+     */
+    public void add(T el) {
+        if (exact == null) {
+            sketch.add(el);
+            return;
+        }
+        exact.add(el);
+        if (exact.size() > threshold) {
+            switchToSketch();
+        }
+    }
+
+    private void switchToSketch() {
+        sketch = new HyperLogLog<>(precision);
+        for (T el : exact) {
+            sketch.add(el);
+        }
+        exact = null;
+    }
+
+    /**
+     * Returns the number of distinct elements counted.
+     * @return the exact count, or an estimate once past the threshold
+     */
+    public long count() {
+        return (exact != null) ? exact.size() : sketch.cardinality();
+    }
+
+    /**
+     * Returns whether count() is still exact.
+     * @return true while the counter has not crossed its threshold
+     */
+    public boolean isExact() {
+        return exact != null;
+    }
+
+    /**
+     * Adds every element counted by another counter to this one.
+     * @param other - a counter with the same precision
+     * @throws IllegalArgumentException if the precisions differ
+     */
+    public void merge(DistinctCounter<T> other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Only counters with the same precision can be merged.");
+        }
+
+        if (other.exact != null) {
+            for (T el : other.exact) {
+                add(el);
+            }
+            return;
+        }
+
+        if (exact != null) {
+            switchToSketch();
+        }
+        sketch.merge(other.sketch);
+    }
+
+    public String toString() {
+        return "DistinctCounter[" + (isExact() ? "exact" : "estimated") + " count=" + count() + "]";
+    }
+
+}
@@ -0,0 +1,27 @@
+/**
+ * Hash functions shared by the probabilistic sets in this package.
+ *
+ * @author Patrick Harvey
+ */
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * Mixes the element's hashCode() into 64 well distributed bits (the MurmurHash3
+     * 64 bit finalizer).
+     * @param el - the element to hash, not null
+     * @return the mixed 64 bit hash of the element
+     */
+    static long hash64(Object el) {
+        long h = el.hashCode() * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
@@ -0,0 +1,301 @@
+import java.util.Arrays;
+
+/**
+ * A HyperLogLog++ sketch that estimates the number of distinct elements added to it,
+ * using a few kilobytes no matter how many elements there are.
+ *
+ * Each element is hashed to 64 bits. The top precision bits choose one of m = 2^precision
+ * registers, and the register keeps the largest position of the first 1 bit seen in the
+ * rest of the hash. The standard error of the estimate is about 1.04 / sqrt(m), e.g.
+ * 0.81% for the default precision of 14 (16 KB of registers).
+ *
+ * As in HyperLogLog++, a new sketch starts in a sparse form. It keeps a sorted list of
+ * (index, value) pairs at the much higher precision 25, which makes small cardinalities
+ * nearly exact. Once the list would take more memory than the dense registers, the
+ * sketch is promoted to the dense form. The cardinality is computed with Ertl's improved
+ * estimator ("New cardinality estimation algorithms for HyperLogLog sketches", 2017),
+ * which is unbiased over the whole range without the empirical bias tables of HLL++.
+ *
+ * A sketch is not synchronized. To count a stream on several threads, give each thread
+ * its own sketch and merge() them; merging is lossless, the result equals the sketch of
+ * the combined stream.
+ *
+ * @param <T> the type of the elements counted
+ * @author Patrick Harvey
+ */
+public class HyperLogLog<T> {
+
+    public static final int DEFAULT_PRECISION = 14;
+    private static final int SPARSE_PRECISION = 25;
+    private static final int SPARSE_VALUE_BITS = 6;
+
+    private final int precision;
+    private byte[] registers; // null while the sketch is sparse
+
+    // sparse form: sorted entries (index << 6 | value) at SPARSE_PRECISION, one per index
+    private int[] sparse;
+    private int sparseSize;
+    private int[] buffer; // unsorted entries not yet merged into sparse
+    private int bufferSize;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Creates an empty sketch with 2^precision registers.
+     * @param precision - the number of index bits, from 4 to 18
+     * @throws IllegalArgumentException if the precision is out of range
+     */
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision must be between 4 and 18.");
+        }
+        this.precision = precision;
+        this.sparse = new int[16];
+        this.buffer = new int[Math.max(16, (1 << precision) / 16)];
+    }
+
+    /**
+     * Adds an element to the sketch. Elements are hashed from their hashCode(), so
+     * elements with equal hash codes are counted once; use addHash() with a wider
+     * hash when more than a few hundred million distinct elements are expected.
+     * @param el - the element to count
+     * @throws IllegalArgumentException if the element is null
+     */
+    public void add(T el) {
+        if (el == null) throw new IllegalArgumentException("You cannot add a null element to this sketch.");
+        addHash(Hashing.hash64(el));
+    }
+
+    /**
+     * Adds an element by its own well distributed 64 bit hash.
+     * @param hash - the hash of the element to count
+     */
+    public void addHash(long hash) {
+        if (registers != null) {
+            int index = (int) (hash >>> (64 - precision));
+            int value = Math.min(Long.numberOfLeadingZeros(hash << precision) + 1, 65 - precision);
+            if (registers[index] < value) {
+                registers[index] = (byte) value;
+            }
+            return;
+        }
+
+        int index = (int) (hash >>> (64 - SPARSE_PRECISION));
+        int value = Math.min(Long.numberOfLeadingZeros(hash << SPARSE_PRECISION) + 1, 65 - SPARSE_PRECISION);
+        buffer[bufferSize++] = (index << SPARSE_VALUE_BITS) | value;
+        if (bufferSize == buffer.length) {
+            flushBuffer();
+        }
+    }
+
+    /**
+     * Merges the buffered entries into the sorted sparse list, keeping the largest
+     * value for each index, and promotes the sketch to dense registers once the
+     * list outgrows them.
+     */
+    private void flushBuffer() {
+        if (bufferSize == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, bufferSize);
+
+        int[] merged = new int[sparseSize + bufferSize];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < sparseSize || j < bufferSize) {
+            int entry = (j == bufferSize || (i < sparseSize && sparse[i] < buffer[j])) ? sparse[i++] : buffer[j++];
+            // entries are sorted by index and then value, so the last entry of an index wins
+            if (size > 0 && (merged[size - 1] >>> SPARSE_VALUE_BITS) == (entry >>> SPARSE_VALUE_BITS)) {
+                merged[size - 1] = entry;
+            } else {
+                merged[size++] = entry;
+            }
+        }
+        sparse = merged;
+        sparseSize = size;
+        bufferSize = 0;
+
+        // an int entry costs 4 bytes, a dense register 1 byte
+        if (sparseSize > (1 << precision) / 4) {
+            promote();
+        }
+    }
+
+    /**
+     * Converts the sparse entries into dense registers.
+     */
+    private void promote() {
+        registers = new byte[1 << precision];
+        int extraBits = SPARSE_PRECISION - precision;
+
+        for (int i = 0; i < sparseSize; i++) {
+            int sparseIndex = sparse[i] >>> SPARSE_VALUE_BITS;
+            int index = sparseIndex >>> extraBits;
+            int low = sparseIndex & ((1 << extraBits) - 1);
+
+            // the index bits dropped by the lower precision become the start of the hash suffix
+            int value = (low != 0)
+                ? Integer.numberOfLeadingZeros(low) - (32 - extraBits) + 1
+                : extraBits + (sparse[i] & ((1 << SPARSE_VALUE_BITS) - 1));
+            if (registers[index] < value) {
+                registers[index] = (byte) value;
+            }
+        }
+        sparse = null;
+        sparseSize = 0;
+        buffer = null;
+    }
+
+    /**
+     * Returns whether the sketch still uses its sparse form.
+     * @return true if sparse, false once promoted to dense registers
+     */
+    public boolean isSparse() {
+        return registers == null;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Adds every element counted by another sketch to this one. The other sketch is
+     * not changed.
+     * @param other - a sketch with the same precision
+     * @throws IllegalArgumentException if the precisions differ
+     */
+    public void merge(HyperLogLog<T> other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Only sketches with the same precision can be merged.");
+        }
+
+        if (other.registers == null) {
+            for (int i = 0; i < other.sparseSize; i++) {
+                addSparseEntry(other.sparse[i]);
+            }
+            for (int i = 0; i < other.bufferSize; i++) {
+                addSparseEntry(other.buffer[i]);
+            }
+            return;
+        }
+
+        if (registers == null) {
+            flushBuffer();
+            if (registers == null) {
+                promote();
+            }
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] < other.registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Adds one sparse entry of another sketch, in whichever form this sketch is.
+     */
+    private void addSparseEntry(int entry) {
+        if (registers == null) {
+            buffer[bufferSize++] = entry;
+            if (bufferSize == buffer.length) {
+                flushBuffer();
+            }
+            return;
+        }
+
+        // rebuild the hash bits the entry stands for and add them as a dense update
+        long index = entry >>> SPARSE_VALUE_BITS;
+        int value = entry & ((1 << SPARSE_VALUE_BITS) - 1);
+        long hash = index << (64 - SPARSE_PRECISION);
+        if (value <= 64 - SPARSE_PRECISION) {
+            hash |= 1L << (64 - SPARSE_PRECISION - value);
+        }
+        addHash(hash);
+    }
+
+    /**
+     * Estimates the number of distinct elements added to the sketch.
+     * @return the estimated cardinality
+     */
+    public long cardinality() {
+        int indexBits;
+        int[] histogram;
+
+        if (registers == null) {
+            flushBuffer();
+        }
+        if (registers == null) {
+            indexBits = SPARSE_PRECISION;
+            histogram = new int[66 - SPARSE_PRECISION];
+            histogram[0] = (1 << SPARSE_PRECISION) - sparseSize;
+            for (int i = 0; i < sparseSize; i++) {
+                histogram[sparse[i] & ((1 << SPARSE_VALUE_BITS) - 1)]++;
+            }
+        } else {
+            indexBits = precision;
+            histogram = new int[66 - precision];
+            for (byte register : registers) {
+                histogram[register]++;
+            }
+        }
+        return Math.round(estimate(histogram, indexBits));
+    }
+
+    /**
+     * Ertl's improved raw estimator over the register value histogram, where
+     * histogram[k] counts the registers holding k.
+     */
+    private static double estimate(int[] histogram, int indexBits) {
+        double m = 1 << indexBits;
+        int q = 64 - indexBits;
+
+        double z = m * tau(1 - histogram[q + 1] / m);
+        for (int k = q; k >= 1; k--) {
+            z = 0.5 * (z + histogram[k]);
+        }
+        z += m * sigma(histogram[0] / m);
+        return m * m / (2 * Math.log(2) * z);
+    }
+
+    private static double sigma(double x) {
+        if (x == 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double y = 1;
+        double z = x;
+        double previous;
+        do {
+            x *= x;
+            previous = z;
+            z += x * y;
+            y += y;
+        } while (z != previous);
+        return z;
+    }
+
+    private static double tau(double x) {
+        if (x == 0 || x == 1) {
+            return 0;
+        }
+        double y = 1;
+        double z = 1 - x;
+        double previous;
+        do {
+            x = Math.sqrt(x);
+            previous = z;
+            y *= 0.5;
+            z -= (1 - x) * (1 - x) * y;
+        } while (z != previous);
+        return z / 3;
+    }
+
+    public String toString() {
+        return "HyperLogLog[precision=" + precision + ", " + (isSparse() ? "sparse" : "dense")
+            + ", cardinality=" + cardinality() + "]";
+    }
+
+}
@@ -5,20 +5,119 @@
 // TA: Sophie Stephenson
 // Lecturer: Gary Dahl
 // Notes to Grader: submitted for Hashset assignment week 6
-// Classes Used: java.util.Hashtable
+// Classes Used: SetADT.java
 
-import java.util.Hashtable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
 
 /**
- * A hash set class implementing a set ADT with the java Hashtable.
- * 
+ * A hash set class implementing a set ADT with a single open addressed array.
+ *
+ * Elements are stored directly in the array and collisions are resolved with linear
+ * probing, so add, contains and remove hash the element once and usually touch only
+ * one or two adjacent slots. Removal shifts the following elements back instead of
+ * leaving tombstones. The set is not synchronized.
+ *
+ * The static union(), intersection() and difference() methods build a new set from two
+ * sets. For large inputs they split the slot range across a ForkJoinPool.
  */
-public class MyHashSet<T> implements SetADT<T> {
-    
-    Hashtable<T, T> hashtable;
+public class MyHashSet<T> implements SetADT<T>, Iterable<T> {
+
+    private static final double LOAD_FACTOR = 0.75;
+
+    // inputs with fewer elements than this are combined on the calling thread
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    // the number of source slots filtered by one fork join leaf
+    private static final int SLOTS_PER_TASK = 1 << 14;
+    // the smallest number of result slots filled by one fork join leaf
+    private static final int MIN_SEGMENT_LENGTH = 1 << 12;
+
+    private Object[] table;
+    private int size;
+    private int mask;
 
     public MyHashSet() {
-        hashtable = new Hashtable<>();
+        this(16);
+    }
+
+    /**
+     * Creates a set that holds the given number of elements without growing.
+     * @param expectedSize the number of elements the set is expected to hold
+     */
+    public MyHashSet(int expectedSize) {
+        table = new Object[tableSizeFor(expectedSize)];
+        mask = table.length - 1;
+    }
+
+    /**
+     * Returns the smallest power of two table length that holds the given number
+     * of elements within the load factor.
+     */
+    private static int tableSizeFor(int expectedSize) {
+        int needed = (int) Math.min(1 << 30, Math.max(2, (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1));
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    /**
+     * Mixes the element's hashCode() so that sequential hash codes are spread across
+     * the table instead of filling one run of adjacent slots.
+     */
+    private int slotFor(Object el) {
+        return slotFor(el, mask);
+    }
+
+    private static int slotFor(Object el, int mask) {
+        int h = el.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Probes the table for the given element.
+     * @return the slot holding el, or -(insertion slot + 1) if it is not in the set
+     */
+    private int find(Object el) {
+        int index = slotFor(el);
+
+        while (table[index] != null) {
+            if (el.equals(table[index])) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -(index + 1);
+    }
+
+    /**
+     * Grows the table, if needed, so that it holds the given number of elements
+     * within the load factor.
+     */
+    private void ensureCapacity(int expectedSize) {
+        if (expectedSize > table.length * LOAD_FACTOR) {
+            rebuild(tableSizeFor(expectedSize), el -> true);
+        }
+    }
+
+    /**
+     * Rehashes the elements that pass the given filter into a new table of the
+     * given length.
+     */
+    private void rebuild(int length, Predicate<Object> keep) {
+        Object[] oldTable = table;
+        table = new Object[length];
+        mask = length - 1;
+        size = 0;
+
+        for (Object el : oldTable) {
+            if (el != null && keep.test(el)) {
+                table[-find(el) - 1] = el;
+                size++;
+            }
+        }
     }
 
     /**
@@ -31,23 +130,15 @@ public class MyHashSet<T> implements SetADT<T> {
 
         if (el == null) throw new IllegalArgumentException("You cannot add a null element to this set.");
 
-        return hashtable.put(el, el) == null;
-
-        // try {
-        //     // check if element is already in set
-        //     if (hashtable.get(el) != null) {
-        //         return false;
-        //     }
-
-        //     // attempt to load element into hash table
-        //     hashtable.put(el, el);
-
-        // } catch (NullPointerException e1) {
-        //     throw new IllegalArgumentException("You cannot add a null element to this set.");
-        // }
+        int index = find(el);
+        if (index >= 0) {
+            return false;
+        }
 
-        // // return true if successful
-        // return true;
+        table[-index - 1] = el;
+        size++;
+        ensureCapacity(size);
+        return true;
     }
 
     /**
@@ -56,7 +147,7 @@ public class MyHashSet<T> implements SetADT<T> {
      * @return true if the element is in the set, false if it is not
      */
     public boolean contains(T el) {
-        return hashtable.contains(el);
+        return el != null && find(el) >= 0;
     }
 
     /**
@@ -66,24 +157,402 @@ public class MyHashSet<T> implements SetADT<T> {
      */
     public boolean remove(T el) {
 
-        try {
-            //attempt to remove element from set
-            if (hashtable.remove(el) != null) {
-                return true;
+        if (el == null) {
+            System.out.println("You cannot remove a null element from this set.");
+            return false;
+        }
+
+        int index = find(el);
+        if (index < 0) {
+            //return false if the argument was not in the set
+            return false;
+        }
+
+        shiftBack(index);
+        size--;
+        return true;
+    }
+
+    /**
+     * Fills the hole left at the given slot by moving back any following element
+     * whose home slot does not lie between the hole and the element itself.
+     */
+    private void shiftBack(int hole) {
+        int index = (hole + 1) & mask;
+
+        while (table[index] != null) {
+            int home = slotFor(table[index]);
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                table[hole] = table[index];
+                hole = index;
             }
+            index = (index + 1) & mask;
+        }
+        table[hole] = null;
+    }
 
-        } 
-        // catch exception if argument was null
-        catch (NullPointerException e1) {
-            System.out.println("You cannot remove a null element from this set.");
+    /**
+     * Returns the number of elements in the set.
+     * @return the size of the set
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every element from the set.
+     */
+    public void clear() {
+        table = new Object[table.length];
+        size = 0;
+    }
+
+    /**
+     * Adds every given element to the set. When the elements come from another
+     * MyHashSet, the table is grown once up front instead of while adding.
+     * @param elements the elements to add, none of which may be null
+     * @return true if the set changed
+     */
+    public boolean addAll(Iterable<? extends T> elements) {
+        if (elements instanceof MyHashSet) {
+            ensureCapacity(size + ((MyHashSet<?>) elements).size);
+        }
+
+        boolean changed = false;
+        for (T el : elements) {
+            changed |= add(el);
+        }
+        return changed;
+    }
+
+    /**
+     * Removes every element that is not in the given set. The kept elements are
+     * rehashed into a table sized for them in a single pass.
+     * @param other the set of elements to keep
+     * @return true if the set changed
+     */
+    @SuppressWarnings("unchecked")
+    public boolean retainAll(SetADT<? super T> other) {
+        // the predicate reads other while the new table is filled, so it must not be this set
+        if (other == this) {
+            return false;
+        }
+
+        int oldSize = size;
+        int expected = (other instanceof MyHashSet) ? Math.min(size, ((MyHashSet<?>) other).size) : size;
+        rebuild(tableSizeFor(expected), el -> other.contains((T) el));
+        return size != oldSize;
+    }
+
+    /**
+     * Removes every given element from the set. When the elements come from a
+     * MyHashSet larger than this set, this set is filtered in a single pass
+     * instead of removing the elements one at a time.
+     * @param elements the elements to remove
+     * @return true if the set changed
+     */
+    public boolean removeAll(Iterable<? extends T> elements) {
+        int oldSize = size;
+
+        // removing shifts elements back past an iterator over the same table
+        if (elements == this) {
+            clear();
+            return oldSize != 0;
+        }
+
+        if (elements instanceof MyHashSet && ((MyHashSet<?>) elements).size > size) {
+            MyHashSet<?> other = (MyHashSet<?>) elements;
+            rebuild(table.length, el -> other.find(el) < 0);
+        } else {
+            for (T el : elements) {
+                if (el != null) {
+                    remove(el);
+                }
+            }
+        }
+        return size != oldSize;
+    }
+
+    /**
+     * Returns an iterator over the elements of the set, in no particular order.
+     * @return an iterator over this set
+     */
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index = advance(0);
+
+            private int advance(int from) {
+                while (from < table.length && table[from] == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return index < table.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more elements in set.");
+                }
+                T el = (T) table[index];
+                index = advance(index + 1);
+                return el;
+            }
+        };
+    }
+
+    /**
+     * Returns a new set holding every element of a or b.
+     * @param a the first set
+     * @param b the second set
+     * @return the union of the two sets
+     */
+    public static <T> MyHashSet<T> union(MyHashSet<T> a, MyHashSet<T> b) {
+        return union(a, b, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns a new set holding every element of a or b, built on the given pool
+     * when the sets are large.
+     * @param a the first set
+     * @param b the second set
+     * @param pool the pool to run on
+     * @return the union of the two sets
+     */
+    public static <T> MyHashSet<T> union(MyHashSet<T> a, MyHashSet<T> b, ForkJoinPool pool) {
+        MyHashSet<T> larger = (a.size >= b.size) ? a : b;
+        MyHashSet<T> smaller = (larger == a) ? b : a;
+        return combine(a.size + b.size, pool,
+            larger, el -> true,
+            smaller, el -> larger.find(el) < 0);
+    }
+
+    /**
+     * Returns a new set holding every element of both a and b.
+     * @param a the first set
+     * @param b the second set
+     * @return the intersection of the two sets
+     */
+    public static <T> MyHashSet<T> intersection(MyHashSet<T> a, MyHashSet<T> b) {
+        return intersection(a, b, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns a new set holding every element of both a and b, built on the given
+     * pool when the sets are large.
+     * @param a the first set
+     * @param b the second set
+     * @param pool the pool to run on
+     * @return the intersection of the two sets
+     */
+    public static <T> MyHashSet<T> intersection(MyHashSet<T> a, MyHashSet<T> b, ForkJoinPool pool) {
+        MyHashSet<T> larger = (a.size >= b.size) ? a : b;
+        MyHashSet<T> smaller = (larger == a) ? b : a;
+        return combine(smaller.size, pool, smaller, el -> larger.find(el) >= 0, null, null);
+    }
+
+    /**
+     * Returns a new set holding every element of a that is not in b.
+     * @param a the set of elements to keep
+     * @param b the set of elements to leave out
+     * @return the difference of the two sets
+     */
+    public static <T> MyHashSet<T> difference(MyHashSet<T> a, MyHashSet<T> b) {
+        return difference(a, b, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns a new set holding every element of a that is not in b, built on the
+     * given pool when the sets are large.
+     * @param a the set of elements to keep
+     * @param b the set of elements to leave out
+     * @param pool the pool to run on
+     * @return the difference of the two sets
+     */
+    public static <T> MyHashSet<T> difference(MyHashSet<T> a, MyHashSet<T> b, ForkJoinPool pool) {
+        return combine(a.size, pool, a, el -> b.find(el) < 0, null, null);
+    }
+
+    /**
+     * Builds a set of the elements of first that pass firstKeep, and of second (which
+     * may be null) that pass secondKeep. No element may pass both filters.
+     *
+     * Small inputs are combined on the calling thread. Large inputs are combined in
+     * three phases:
+     * 1) the slot ranges of the sources are filtered in parallel, and each range groups
+     *    its kept elements by the segment of the result table they hash to
+     * 2) the segments of the result table are filled in parallel. An element is probed
+     *    for only within its own segment, so no two tasks write the same slot
+     * 3) the few elements whose probe ran past the end of their segment are placed
+     *    on the calling thread, with the usual wrap around probing
+     */
+    private static <T> MyHashSet<T> combine(int expectedSize, ForkJoinPool pool,
+                                            MyHashSet<T> first, Predicate<Object> firstKeep,
+                                            MyHashSet<T> second, Predicate<Object> secondKeep) {
+        MyHashSet<T> result = new MyHashSet<>(expectedSize);
+        int sourceSize = first.size + ((second == null) ? 0 : second.size);
+
+        if (sourceSize < PARALLEL_THRESHOLD || pool.getParallelism() == 1) {
+            result.insertFiltered(first.table, 0, first.table.length, firstKeep);
+            if (second != null) {
+                result.insertFiltered(second.table, 0, second.table.length, secondKeep);
+            }
+            return result;
         }
 
-        //return false if the argument was not in the set
-        return false;
+        Object[] resultTable = result.table;
+        int segmentCount = Math.max(1, Math.min(Integer.highestOneBit(pool.getParallelism() * 8),
+                                                resultTable.length / MIN_SEGMENT_LENGTH));
+        int segmentShift = Integer.numberOfTrailingZeros(resultTable.length / segmentCount);
+
+        // phase 1: filter the sources, one leaf per SLOTS_PER_TASK source slots
+        int firstTasks = (first.table.length + SLOTS_PER_TASK - 1) / SLOTS_PER_TASK;
+        int secondTasks = (second == null) ? 0 : (second.table.length + SLOTS_PER_TASK - 1) / SLOTS_PER_TASK;
+        Object[][] kept = new Object[firstTasks + secondTasks][];
+        int[][] segmentStarts = new int[firstTasks + secondTasks][];
+
+        pool.invoke(new RangeAction(0, firstTasks + secondTasks, task -> {
+            Object[] source = (task < firstTasks) ? first.table : second.table;
+            Predicate<Object> keep = (task < firstTasks) ? firstKeep : secondKeep;
+            int from = ((task < firstTasks) ? task : task - firstTasks) * SLOTS_PER_TASK;
+            int to = Math.min(source.length, from + SLOTS_PER_TASK);
+
+            Object[] elements = new Object[to - from];
+            int[] segments = new int[to - from];
+            int[] counts = new int[segmentCount + 1];
+            int size = 0;
+            for (int i = from; i < to; i++) {
+                if (source[i] != null && keep.test(source[i])) {
+                    elements[size] = source[i];
+                    segments[size] = slotFor(source[i], resultTable.length - 1) >>> segmentShift;
+                    counts[segments[size] + 1]++;
+                    size++;
+                }
+            }
+
+            // counting sort of the kept elements by segment
+            for (int s = 0; s < segmentCount; s++) {
+                counts[s + 1] += counts[s];
+            }
+            int[] starts = counts.clone();
+            Object[] grouped = new Object[size];
+            for (int i = 0; i < size; i++) {
+                grouped[counts[segments[i]]++] = elements[i];
+            }
+            kept[task] = grouped;
+            segmentStarts[task] = starts;
+        }));
+
+        // phase 2: fill each segment of the result table from every leaf's group for it
+        Object[][] overflow = new Object[segmentCount][];
+        int[] placed = new int[segmentCount];
+
+        pool.invoke(new RangeAction(0, segmentCount, segment -> {
+            int segmentEnd = (segment + 1) << segmentShift;
+            Object[] spilled = new Object[0];
+            int spilledCount = 0;
+            int count = 0;
+
+            for (int task = 0; task < kept.length; task++) {
+                for (int i = segmentStarts[task][segment]; i < segmentStarts[task][segment + 1]; i++) {
+                    Object el = kept[task][i];
+                    int index = slotFor(el, resultTable.length - 1);
+                    while (index < segmentEnd && resultTable[index] != null) {
+                        index++;
+                    }
+                    if (index < segmentEnd) {
+                        resultTable[index] = el;
+                        count++;
+                    } else {
+                        if (spilledCount == spilled.length) {
+                            spilled = Arrays.copyOf(spilled, Math.max(4, spilledCount * 2));
+                        }
+                        spilled[spilledCount++] = el;
+                    }
+                }
+            }
+            overflow[segment] = Arrays.copyOf(spilled, spilledCount);
+            placed[segment] = count;
+        }));
+
+        // phase 3: place the elements that ran past the end of their segment
+        for (int segment = 0; segment < segmentCount; segment++) {
+            result.size += placed[segment];
+            for (Object el : overflow[segment]) {
+                int index = slotFor(el, result.mask);
+                while (resultTable[index] != null) {
+                    index = (index + 1) & result.mask;
+                }
+                resultTable[index] = el;
+                result.size++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds the elements of the given slot range that pass the filter. The elements
+     * must not already be in this set, and the table must have room for them.
+     */
+    private void insertFiltered(Object[] source, int from, int to, Predicate<Object> keep) {
+        for (int i = from; i < to; i++) {
+            if (source[i] != null && keep.test(source[i])) {
+                int index = slotFor(source[i]);
+                while (table[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = source[i];
+                size++;
+            }
+        }
+    }
+
+    /**
+     * A fork join action that runs a body for every index of a range, splitting the
+     * range in half until single indices are left.
+     */
+    private static final class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer body;
+
+        RangeAction(int from, int to, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.accept(from);
+            } else if (to > from) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeAction(from, middle, body), new RangeAction(middle, to, body));
+            }
+        }
     }
 
     public String toString() {
-        return hashtable.keySet().toString();
+        StringBuilder builder = new StringBuilder("[");
+        for (T el : this) {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(el);
+        }
+        return builder.append("]").toString();
     }
 
     /**
@@ -91,9 +560,9 @@ public class MyHashSet<T> implements SetADT<T> {
      * written above.
      */
     public static void main(String[] args) {
-        
+
         MyHashSet<Integer> set = new MyHashSet<>();
-        // demo add method 
+        // demo add method
         set.add(1);
         set.add(2);
         set.add(3);
@@ -0,0 +1,809 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * A compressed bitmap set of int values in the style of Roaring bitmaps.
+ *
+ * The int domain is split into 65536 chunks of 65536 values by the high 16 bits of each
+ * value. Each non-empty chunk has a container holding the low 16 bits of its values.
+ * The chunk keys are kept sorted in a char[], next to a parallel array of containers.
+ * A container is one of:
+ *   ArrayContainer  -- a sorted char[] for chunks with at most 4096 values (2 bytes each)
+ *   BitmapContainer -- a long[1024] bitmap for denser chunks (8 KB for the whole chunk)
+ *   RunContainer    -- sorted (start, length - 1) pairs for chunks made of long runs
+ *
+ * add() and remove() switch a chunk between the array and bitmap forms as its size
+ * crosses 4096. runOptimize() converts chunks to runs wherever that is smaller. Dense or
+ * clustered IDs cost between 1 bit and 2 bytes each, instead of a hash set entry.
+ *
+ * union(), intersection() and difference() combine two bitmaps chunk by chunk. Wherever a
+ * bitmap container is involved they work on whole 64-bit words. Iteration is in
+ * ascending order.
+ *
+ * @author Patrick Harvey
+ */
+public class RoaringBitmap implements SetADT<Integer>, Iterable<Integer> {
+
+    private static final int ARRAY_MAX = 4096; // largest ArrayContainer
+    private static final int BITMAP_WORDS = 1024; // 65536 bits
+
+    private char[] keys;
+    private Container[] containers;
+    private int chunks;
+
+    public RoaringBitmap() {
+        keys = new char[4];
+        containers = new Container[4];
+    }
+
+    /**
+     * Creates a bitmap holding the given values.
+     * @param values the values to add
+     * @return a new bitmap of the values
+     */
+    public static RoaringBitmap of(int... values) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Returns the chunk key of a value. The sign bit is flipped so that the keys of
+     * negative values sort before those of positive values.
+     */
+    private static char high(int value) {
+        return (char) ((value >>> 16) ^ 0x8000);
+    }
+
+    /**
+     * Returns the high 16 bits of the values within the chunk of the given key.
+     */
+    private static int highBits(char key) {
+        return (key ^ 0x8000) << 16;
+    }
+
+    private static char low(int value) {
+        return (char) value;
+    }
+
+    /**
+     * Binary searches the chunk keys.
+     * @return the index of key, or -(insertion index + 1) if it is absent
+     */
+    private int findChunk(char key) {
+        return Arrays.binarySearch(keys, 0, chunks, key);
+    }
+
+    private void insertChunk(int index, char key, Container container) {
+        if (chunks == keys.length) {
+            keys = Arrays.copyOf(keys, chunks * 2);
+            containers = Arrays.copyOf(containers, chunks * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, chunks - index);
+        System.arraycopy(containers, index, containers, index + 1, chunks - index);
+        keys[index] = key;
+        containers[index] = container;
+        chunks++;
+    }
+
+    private void removeChunk(int index) {
+        System.arraycopy(keys, index + 1, keys, index, chunks - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, chunks - index - 1);
+        chunks--;
+        containers[chunks] = null;
+    }
+
+    /**
+     * Adds a primitive value to the set.
+     * @param value the value to add
+     * @return true if the value was added, false if it was already in the set
+     */
+    public boolean add(int value) {
+        int index = findChunk(high(value));
+
+        if (index < 0) {
+            insertChunk(-index - 1, high(value), new ArrayContainer().add(low(value)));
+            return true;
+        }
+
+        int before = containers[index].cardinality();
+        containers[index] = containers[index].add(low(value));
+        return containers[index].cardinality() != before;
+    }
+
+    /**
+     * Add a new element to the set.
+     * @param el the new element to add to the set
+     * @return true if the element has been added to the set, false if it was already in the set
+     * @throws IllegalArgumentException if the new element passed to the method is null
+     */
+    public boolean add(Integer el) {
+        if (el == null) throw new IllegalArgumentException("You cannot add a null element to this set.");
+        return add(el.intValue());
+    }
+
+    /**
+     * Return true if the primitive value is in the set, false otherwise.
+     * @param value the value to check for
+     * @return true if the value is in the set, false if it is not
+     */
+    public boolean contains(int value) {
+        int index = findChunk(high(value));
+        return index >= 0 && containers[index].contains(low(value));
+    }
+
+    /**
+     * Return true if the element is in the set, false otherwise.
+     * @param el the element to check for
+     * @return true if the element is in the set, false if it is not
+     */
+    public boolean contains(Integer el) {
+        return el != null && contains(el.intValue());
+    }
+
+    /**
+     * Remove a primitive value from the set.
+     * @param value the value to remove from the set
+     * @return true if the value has been removed, false if it was not in the set
+     */
+    public boolean remove(int value) {
+        int index = findChunk(high(value));
+        if (index < 0) {
+            return false;
+        }
+
+        int before = containers[index].cardinality();
+        containers[index] = containers[index].remove(low(value));
+
+        if (containers[index].cardinality() == 0) {
+            removeChunk(index);
+            return true;
+        }
+        return containers[index].cardinality() != before;
+    }
+
+    /**
+     * Remove element from the set.
+     * @param el the element to remove from the set
+     * @return true if the element has been removed, false otherwise (if it was not in the set)
+     */
+    public boolean remove(Integer el) {
+        return el != null && remove(el.intValue());
+    }
+
+    /**
+     * Returns the number of values within the set.
+     * @return the cardinality of the set
+     */
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < chunks; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return chunks == 0;
+    }
+
+    /**
+     * Converts every container to a run container wherever that is smaller.
+     */
+    public void runOptimize() {
+        for (int i = 0; i < chunks; i++) {
+            containers[i] = containers[i].runOptimize();
+        }
+    }
+
+    /**
+     * Returns an estimate of the heap memory used by the containers, in bytes.
+     * @return the size of the containers' data in bytes
+     */
+    public long sizeInBytes() {
+        long bytes = chunks * (2L + 8L);
+        for (int i = 0; i < chunks; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns a new set holding every value in this set or the other set.
+     * @param other the other set
+     * @return the union of the two sets
+     */
+    public RoaringBitmap union(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+
+        while (i < chunks || j < other.chunks) {
+            if (j == other.chunks || (i < chunks && keys[i] < other.keys[j])) {
+                result.appendChunk(keys[i], containers[i].copy());
+                i++;
+            } else if (i == chunks || other.keys[j] < keys[i]) {
+                result.appendChunk(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.appendChunk(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new set holding every value in both this set and the other set.
+     * @param other the other set
+     * @return the intersection of the two sets
+     */
+    public RoaringBitmap intersection(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+
+        while (i < chunks && j < other.chunks) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (other.keys[j] < keys[i]) {
+                j++;
+            } else {
+                Container container = containers[i].and(other.containers[j]);
+                if (container.cardinality() > 0) {
+                    result.appendChunk(keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new set holding every value in this set that is not in the other set.
+     * @param other the other set
+     * @return the difference of the two sets
+     */
+    public RoaringBitmap difference(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap();
+        int j = 0;
+
+        for (int i = 0; i < chunks; i++) {
+            while (j < other.chunks && other.keys[j] < keys[i]) {
+                j++;
+            }
+
+            if (j < other.chunks && other.keys[j] == keys[i]) {
+                Container container = containers[i].andNot(other.containers[j]);
+                if (container.cardinality() > 0) {
+                    result.appendChunk(keys[i], container);
+                }
+            } else {
+                result.appendChunk(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds a chunk whose key is larger than every existing key.
+     */
+    private void appendChunk(char key, Container container) {
+        insertChunk(chunks, key, container);
+    }
+
+    /**
+     * Calls the given action for every value in the set, in ascending order,
+     * without boxing. Named apart from Iterable.forEach() so that a lambda
+     * argument is not ambiguous.
+     * @param action the action applied to each value
+     */
+    public void forEachInt(IntConsumer action) {
+        for (int i = 0; i < chunks; i++) {
+            containers[i].forEach(highBits(keys[i]), action);
+        }
+    }
+
+    /**
+     * Returns an iterator over the values of the set, in ascending order.
+     * @return an iterator over this set
+     */
+    public Iterator<Integer> iterator() {
+        return new Iterator<Integer>() {
+            private int chunk = 0;
+            private int next = (chunks > 0) ? containers[0].nextValue(0) : -1;
+
+            @Override
+            public boolean hasNext() {
+                while (next < 0 && chunk < chunks - 1) {
+                    chunk++;
+                    next = containers[chunk].nextValue(0);
+                }
+                return next >= 0;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more elements in set.");
+                }
+                int value = highBits(keys[chunk]) | next;
+                next = (next == 0xFFFF) ? -1 : containers[chunk].nextValue(next + 1);
+                return value;
+            }
+        };
+    }
+
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        forEachInt(value -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(value);
+        });
+        return builder.append("]").toString();
+    }
+
+    /**
+     * The low 16 bits of the values within one chunk. Mutators return the container
+     * that now holds the values, which is a different type when the form changes.
+     */
+    private abstract static class Container {
+        abstract Container add(char value);
+        abstract Container remove(char value);
+        abstract boolean contains(char value);
+        abstract int cardinality();
+        abstract Container copy();
+        abstract long sizeInBytes();
+
+        /** Calls action for each value, ORed with high, in ascending order. */
+        abstract void forEach(int high, IntConsumer action);
+
+        /** Returns the smallest value >= from, or -1 if there is none. */
+        abstract int nextValue(int from);
+
+        /** Sets the bits of every value within the given bitmap words. */
+        abstract void fillBitmap(long[] words);
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            fillBitmap(bitmap.words);
+            bitmap.cardinality = cardinality();
+            return bitmap;
+        }
+
+        Container or(Container other) {
+            if (this instanceof ArrayContainer && other instanceof ArrayContainer) {
+                return ((ArrayContainer) this).or((ArrayContainer) other);
+            }
+            BitmapContainer result = toBitmap();
+            other.fillBitmap(result.words);
+            return result.recount();
+        }
+
+        Container and(Container other) {
+            if (this instanceof ArrayContainer) {
+                return ((ArrayContainer) this).filter(other, true);
+            }
+            if (other instanceof ArrayContainer) {
+                return ((ArrayContainer) other).filter(this, true);
+            }
+            BitmapContainer result = toBitmap();
+            long[] words = (other instanceof BitmapContainer) ? ((BitmapContainer) other).words : other.toBitmap().words;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result.words[i] &= words[i];
+            }
+            return result.recount();
+        }
+
+        Container andNot(Container other) {
+            if (this instanceof ArrayContainer) {
+                return ((ArrayContainer) this).filter(other, false);
+            }
+            BitmapContainer result = toBitmap();
+            long[] words = (other instanceof BitmapContainer) ? ((BitmapContainer) other).words : other.toBitmap().words;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result.words[i] &= ~words[i];
+            }
+            return result.recount();
+        }
+
+        /**
+         * Returns a run container holding the same values if it would be smaller.
+         */
+        Container runOptimize() {
+            RunContainer runs = RunContainer.from(this);
+            return (runs.sizeInBytes() < sizeInBytes()) ? runs : this;
+        }
+
+        /**
+         * Returns the values as an array container or a bitmap container, depending
+         * on the cardinality.
+         */
+        Container toArrayOrBitmap() {
+            if (cardinality() > ARRAY_MAX) {
+                return toBitmap();
+            }
+            ArrayContainer array = new ArrayContainer(cardinality());
+            forEach(0, value -> array.content[array.cardinality++] = (char) value);
+            return array;
+        }
+    }
+
+    /**
+     * A sorted array of at most ARRAY_MAX values.
+     */
+    private static final class ArrayContainer extends Container {
+        char[] content;
+        int cardinality;
+
+        ArrayContainer() {
+            this(4);
+        }
+
+        ArrayContainer(int capacity) {
+            content = new char[Math.max(capacity, 1)];
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(content, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+
+            index = -index - 1;
+            if (cardinality == content.length) {
+                content = Arrays.copyOf(content, Math.min(ARRAY_MAX, cardinality * 2));
+            }
+            System.arraycopy(content, index, content, index + 1, cardinality - index);
+            content[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(content, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(content, index + 1, content, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(content, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container copy() {
+            ArrayContainer copy = new ArrayContainer(cardinality);
+            System.arraycopy(content, 0, copy.content, 0, cardinality);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 2L * cardinality;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < cardinality; i++) {
+                action.accept(high | content[i]);
+            }
+        }
+
+        @Override
+        int nextValue(int from) {
+            int index = Arrays.binarySearch(content, 0, cardinality, (char) from);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return (index < cardinality) ? content[index] : -1;
+        }
+
+        @Override
+        void fillBitmap(long[] words) {
+            for (int i = 0; i < cardinality; i++) {
+                words[content[i] >>> 6] |= 1L << content[i];
+            }
+        }
+
+        /**
+         * Merges two sorted arrays, switching to a bitmap if the union is too large.
+         */
+        Container or(ArrayContainer other) {
+            if (cardinality + other.cardinality > ARRAY_MAX) {
+                BitmapContainer result = toBitmap();
+                other.fillBitmap(result.words);
+                return result.recount();
+            }
+
+            ArrayContainer result = new ArrayContainer(cardinality + other.cardinality);
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < other.cardinality) {
+                char value;
+                if (j == other.cardinality || (i < cardinality && content[i] < other.content[j])) {
+                    value = content[i++];
+                } else if (i == cardinality || other.content[j] < content[i]) {
+                    value = other.content[j++];
+                } else {
+                    value = content[i++];
+                    j++;
+                }
+                result.content[result.cardinality++] = value;
+            }
+            return result;
+        }
+
+        /**
+         * Keeps the values that are (keep == true) or are not (keep == false) in other.
+         */
+        Container filter(Container other, boolean keep) {
+            ArrayContainer result = new ArrayContainer(cardinality);
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(content[i]) == keep) {
+                    result.content[result.cardinality++] = content[i];
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * A bitmap of all 65536 possible values of a chunk.
+     */
+    private static final class BitmapContainer extends Container {
+        final long[] words = new long[BITMAP_WORDS];
+        int cardinality;
+
+        @Override
+        Container add(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before | (1L << value);
+            if (before != words[value >>> 6]) {
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before & ~(1L << value);
+            if (before != words[value >>> 6] && --cardinality <= ARRAY_MAX) {
+                return toArrayOrBitmap();
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container copy() {
+            BitmapContainer copy = new BitmapContainer();
+            System.arraycopy(words, 0, copy.words, 0, BITMAP_WORDS);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 8L * BITMAP_WORDS;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    action.accept(high | (i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        int nextValue(int from) {
+            int i = from >>> 6;
+            long word = words[i] & (-1L << from);
+            while (true) {
+                if (word != 0) {
+                    return (i << 6) | Long.numberOfTrailingZeros(word);
+                }
+                if (++i == BITMAP_WORDS) {
+                    return -1;
+                }
+                word = words[i];
+            }
+        }
+
+        @Override
+        void fillBitmap(long[] target) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                target[i] |= words[i];
+            }
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            return (BitmapContainer) copy();
+        }
+
+        /**
+         * Recomputes the cardinality after a word level operation, and switches
+         * to an array if the bitmap has become sparse.
+         */
+        Container recount() {
+            cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            return (cardinality <= ARRAY_MAX) ? toArrayOrBitmap() : this;
+        }
+    }
+
+    /**
+     * Sorted, non adjacent runs of values, each stored as (start, length - 1).
+     */
+    private static final class RunContainer extends Container {
+        char[] runs; // pairs of start and length - 1
+        int runCount;
+
+        /**
+         * Builds the runs of the values of another container.
+         */
+        static RunContainer from(Container container) {
+            RunContainer result = new RunContainer();
+            result.runs = new char[8];
+            int[] previous = { -2 };
+            container.forEach(0, value -> {
+                if (value == previous[0] + 1) {
+                    result.runs[2 * result.runCount - 1]++;
+                } else {
+                    if (2 * result.runCount == result.runs.length) {
+                        result.runs = Arrays.copyOf(result.runs, result.runs.length * 2);
+                    }
+                    result.runs[2 * result.runCount] = (char) value;
+                    result.runs[2 * result.runCount + 1] = 0;
+                    result.runCount++;
+                }
+                previous[0] = value;
+            });
+            return result;
+        }
+
+        /**
+         * Returns the index of the run holding value, or -1.
+         */
+        private int findRun(int value) {
+            int low = 0;
+            int high = runCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int start = runs[2 * mid];
+                if (value < start) {
+                    high = mid - 1;
+                } else if (value > start + runs[2 * mid + 1]) {
+                    low = mid + 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        @Override
+        Container add(char value) {
+            return contains(value) ? this : toArrayOrBitmap().add(value);
+        }
+
+        @Override
+        Container remove(char value) {
+            return contains(value) ? toArrayOrBitmap().remove(value) : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return findRun(value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            int cardinality = 0;
+            for (int i = 0; i < runCount; i++) {
+                cardinality += runs[2 * i + 1] + 1;
+            }
+            return cardinality;
+        }
+
+        @Override
+        Container copy() {
+            RunContainer copy = new RunContainer();
+            copy.runs = Arrays.copyOf(runs, 2 * runCount);
+            copy.runCount = runCount;
+            return copy;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 4L * runCount;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < runCount; i++) {
+                int start = runs[2 * i];
+                int end = start + runs[2 * i + 1];
+                for (int value = start; value <= end; value++) {
+                    action.accept(high | value);
+                }
+            }
+        }
+
+        @Override
+        int nextValue(int from) {
+            int index = findRun(from);
+            if (index >= 0) {
+                return from;
+            }
+            index = -index - 1;
+            return (index < runCount) ? runs[2 * index] : -1;
+        }
+
+        @Override
+        void fillBitmap(long[] words) {
+            for (int i = 0; i < runCount; i++) {
+                int start = runs[2 * i];
+                int end = start + runs[2 * i + 1] + 1; // exclusive
+                int firstWord = start >>> 6;
+                int lastWord = (end - 1) >>> 6;
+
+                // whole words in the middle of the run are set at once
+                if (firstWord == lastWord) {
+                    words[firstWord] |= (-1L << start) & (-1L >>> -end);
+                } else {
+                    words[firstWord] |= -1L << start;
+                    for (int w = firstWord + 1; w < lastWord; w++) {
+                        words[w] = -1L;
+                    }
+                    words[lastWord] |= -1L >>> -end;
+                }
+            }
+        }
+
+        @Override
+        Container runOptimize() {
+            return this;
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures MyHashSet.union(), intersection() and difference() on two overlapping sets of
+ * Integers, run sequentially and on fork join pools of increasing parallelism, and
+ * reports the speedup of each pool over the sequential run.
+ *
+ * Run with: java SetAlgebraBenchmark [elements per set]
+ *
+ * @author Patrick Harvey
+ */
+public class SetAlgebraBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private interface Operation {
+        MyHashSet<Integer> apply(MyHashSet<Integer> a, MyHashSet<Integer> b, ForkJoinPool pool);
+    }
+
+    /**
+     * Returns the best time of a few runs of the operation on the given pool.
+     */
+    private static long time(Operation operation, MyHashSet<Integer> a, MyHashSet<Integer> b, ForkJoinPool pool) {
+        long best = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            checksum += operation.apply(a, b, pool).size();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        if (checksum == 42) {
+            System.out.println();
+        }
+        return best;
+    }
+
+    public static void main(String[] args) {
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 5_000_000;
+
+        // a holds 0 .. count - 1 and b holds count / 2 .. count * 3 / 2 - 1
+        MyHashSet<Integer> a = new MyHashSet<>(count);
+        MyHashSet<Integer> b = new MyHashSet<>(count);
+        for (int i = 0; i < count; i++) {
+            a.add(i);
+            b.add(i + count / 2);
+        }
+
+        String[] names = { "union", "intersection", "difference" };
+        Operation[] operations = { MyHashSet::union, MyHashSet::intersection, MyHashSet::difference };
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < operations.length; i++) {
+            ForkJoinPool single = new ForkJoinPool(1);
+            long sequential = time(operations[i], a, b, single);
+            single.shutdown();
+            System.out.printf("%-12s sequential      %8.1f ms%n", names[i], sequential / 1e6);
+
+            for (int parallelism = 2; parallelism <= cores; parallelism *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                long parallel = time(operations[i], a, b, pool);
+                pool.shutdown();
+                System.out.printf("%-12s %2d threads      %8.1f ms   speedup %.2fx%n",
+                    names[i], parallelism, parallel / 1e6, (double) sequential / parallel);
+            }
+        }
+    }
+
+}
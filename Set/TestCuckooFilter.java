@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestCuckooFilter {
+
+    private static final int EXPECTED = 16;
+    private static final double RATE = 0.1;
+
+    /**
+     * Returns an element other than y that a filter holding only y reports as contained,
+     * that is, one with the same fingerprint and pair of buckets as y.
+     */
+    private static int collisionWith(int y) {
+        CuckooFilter<Integer> filter = new CuckooFilter<>(EXPECTED, RATE);
+        filter.add(y);
+        int x = y + 1;
+        while (!filter.contains(x)) {
+            x++;
+        }
+        return x;
+    }
+
+    @Test
+    public void testRemoveAfterCollidingAdd() {
+
+        int y = 7;
+        int x = collisionWith(y);
+        CuckooFilter<Integer> filter = new CuckooFilter<>(EXPECTED, RATE);
+
+        assertTrue("Error", filter.add(y));
+        assertTrue("A colliding add should still be stored", filter.add(x));
+        assertEquals("Error", 2, filter.size());
+        assertTrue("Error", filter.remove(x));
+        assertTrue("Removing x should not remove y", filter.contains(y));
+        assertEquals("Error", 1, filter.size());
+    }
+
+    @Test
+    public void testRemoveAfterCollidingMerge() {
+
+        int y = 7;
+        int x = collisionWith(y);
+        CuckooFilter<Integer> first = new CuckooFilter<>(EXPECTED, RATE);
+        CuckooFilter<Integer> second = new CuckooFilter<>(EXPECTED, RATE);
+        first.add(y);
+        second.add(x);
+
+        first.merge(second);
+        assertEquals("Merging should keep both fingerprints", 2, first.size());
+        assertTrue("Error", first.remove(x));
+        assertTrue("Removing x should not remove y", first.contains(y));
+    }
+
+    @Test
+    public void testAddSameElementRepeatedly() {
+
+        CuckooFilter<String> filter = new CuckooFilter<>(1_000_000, 0.01);
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue("Each copy up to the limit should be stored", filter.add("duplicate"));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertFalse("A copy past the limit should not be stored", filter.add("duplicate"));
+        }
+        assertEquals("Error", 8, filter.size());
+
+        // the filter must not have filled up, so other elements can still be added
+        for (int i = 0; i < 1000; i++) {
+            assertTrue("Error", filter.add("key" + i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue("Missing key" + i, filter.contains("key" + i));
+        }
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue("Missing duplicate", filter.contains("duplicate"));
+            assertTrue("Error", filter.remove("duplicate"));
+        }
+        assertFalse("Every copy should have been removed", filter.remove("duplicate"));
+    }
+
+}
@@ -0,0 +1,67 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestMyHashSet {
+
+    private static MyHashSet<Integer> range(int from, int to) {
+        MyHashSet<Integer> set = new MyHashSet<>();
+        for (int i = from; i < to; i++) {
+            set.add(i);
+        }
+        return set;
+    }
+
+    @Test
+    public void testRetainAllWithItself() {
+
+        MyHashSet<Integer> set = range(0, 100);
+
+        assertFalse("Retaining a set's own elements should not change it", set.retainAll(set));
+        assertEquals("Error", 100, set.size());
+        for (int i = 0; i < 100; i++) {
+            assertTrue("Missing " + i, set.contains(i));
+        }
+    }
+
+    @Test
+    public void testRemoveAllWithItself() {
+
+        MyHashSet<Integer> set = range(0, 100);
+
+        assertTrue("Removing a set's own elements should change it", set.removeAll(set));
+        assertEquals("Error", 0, set.size());
+        for (int i = 0; i < 100; i++) {
+            assertFalse("Survived " + i, set.contains(i));
+        }
+        assertFalse("Removing from an empty set should not change it", set.removeAll(set));
+    }
+
+    @Test
+    public void testRetainAllAndRemoveAll() {
+
+        MyHashSet<Integer> set = range(0, 100);
+
+        assertTrue("Error", set.retainAll(range(50, 150)));
+        assertEquals("Error", 50, set.size());
+
+        assertTrue("Error", set.removeAll(range(0, 75)));
+        assertEquals("Error", 25, set.size());
+        for (int i = 75; i < 100; i++) {
+            assertTrue("Missing " + i, set.contains(i));
+        }
+    }
+
+    @Test
+    public void testSetAlgebraWithItself() {
+
+        MyHashSet<Integer> set = range(0, 1000);
+
+        assertEquals("Error", 1000, MyHashSet.union(set, set).size());
+        assertEquals("Error", 1000, MyHashSet.intersection(set, set).size());
+        assertEquals("Error", 0, MyHashSet.difference(set, set).size());
+        assertEquals("The operands should not change", 1000, set.size());
+    }
+
+}